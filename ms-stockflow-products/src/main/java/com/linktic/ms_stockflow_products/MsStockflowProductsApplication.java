@@ -2,8 +2,10 @@ package com.linktic.ms_stockflow_products;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class MsStockflowProductsApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,158 @@
+package com.linktic.ms_stockflow_products.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limitador de concurrencia adaptativo basado en el gradiente de latencia.
+ * <p>
+ * Compara la latencia sin carga ({@code minRtt}) con la latencia promedio de cada ventana de muestras:
+ * mientras la latencia no crece el límite aumenta en {@code sqrt(limit)}, y cuando la base de datos se
+ * satura el gradiente {@code tolerance * minRtt / rtt} lo reduce. Cada {@code probeInterval} ventanas se
+ * vuelve a medir {@code minRtt} durante una ventana con baja concurrencia, para adaptarse a cambios
+ * permanentes de latencia (por ejemplo, una base de datos más lenta).
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int windowSize;
+    private final int probeInterval;
+    private final double tolerance;
+    private final double smoothing;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    // Estado de la ventana actual, protegido por el monitor de la instancia
+    private double estimatedLimit;
+    private double minRttNanos = Double.NaN;
+    private long windowRttSum;
+    private int windowCount;
+    private int windowMaxInFlight;
+    private int windowsSinceProbe;
+    private double limitBeforeProbe = Double.NaN;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, int windowSize,
+                                      int probeInterval, double tolerance, double smoothing) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Límites de concurrencia inválidos: min=" + minLimit + ", max=" + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.windowSize = Math.max(1, windowSize);
+        this.probeInterval = Math.max(1, probeInterval);
+        this.tolerance = Math.max(1.0, tolerance);
+        this.smoothing = Math.min(1.0, Math.max(0.01, smoothing));
+        this.initialLimit = initialLimit;
+        this.estimatedLimit = clamp(initialLimit);
+        this.limit = (int) estimatedLimit;
+    }
+
+    /**
+     * Intenta reservar un permiso sin bloquear.
+     * @return {@code true} si la petición puede procesarse
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Libera un permiso y registra la latencia observada.
+     * @param startNanos instante ({@link System#nanoTime()}) en que se adquirió el permiso
+     */
+    public void release(long startNanos) {
+        int concurrency = inFlight.getAndDecrement();
+        onSample(System.nanoTime() - startNanos, concurrency);
+    }
+
+    /**
+     * Registra una muestra de latencia junto con la concurrencia con la que fue medida.
+     */
+    synchronized void onSample(long rttNanos, int concurrency) {
+        windowRttSum += rttNanos;
+        windowCount++;
+        windowMaxInFlight = Math.max(windowMaxInFlight, concurrency);
+        if (windowCount < windowSize) {
+            return;
+        }
+
+        double rtt = (double) windowRttSum / windowCount;
+        int maxInFlight = windowMaxInFlight;
+        windowRttSum = 0;
+        windowCount = 0;
+        windowMaxInFlight = 0;
+
+        if (Double.isNaN(minRttNanos) || rtt < minRttNanos) {
+            minRttNanos = rtt;
+        }
+
+        if (!Double.isNaN(limitBeforeProbe)) {
+            // La ventana de sondeo ya midió la latencia sin carga: se retoma el límite previo
+            estimatedLimit = limitBeforeProbe;
+            limitBeforeProbe = Double.NaN;
+            limit = (int) estimatedLimit;
+            return;
+        }
+        if (++windowsSinceProbe >= probeInterval) {
+            // Se reduce la concurrencia durante una ventana para medir de nuevo la latencia sin carga
+            windowsSinceProbe = 0;
+            minRttNanos = Double.NaN;
+            limitBeforeProbe = estimatedLimit;
+            estimatedLimit = clamp(queueSize(estimatedLimit));
+            limit = (int) estimatedLimit;
+            return;
+        }
+
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, tolerance * minRttNanos / rtt));
+        // Si la carga no llega a la mitad del límite no hay evidencia para seguir creciendo
+        if (gradient >= 1.0 && maxInFlight * 2 < estimatedLimit) {
+            return;
+        }
+
+        double newLimit = estimatedLimit * gradient + queueSize(estimatedLimit);
+        estimatedLimit = clamp(estimatedLimit * (1 - smoothing) + newLimit * smoothing);
+        limit = (int) estimatedLimit;
+    }
+
+    /**
+     * Descarta las muestras registradas y vuelve al límite inicial: la próxima ventana mide de nuevo la
+     * latencia sin carga. Las peticiones en curso conservan su permiso.
+     */
+    public synchronized void reset() {
+        estimatedLimit = clamp(initialLimit);
+        minRttNanos = Double.NaN;
+        windowRttSum = 0;
+        windowCount = 0;
+        windowMaxInFlight = 0;
+        windowsSinceProbe = 0;
+        limitBeforeProbe = Double.NaN;
+        limit = (int) estimatedLimit;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private static double queueSize(double currentLimit) {
+        return Math.ceil(Math.sqrt(currentLimit));
+    }
+
+    private double clamp(double value) {
+        return Math.max(minLimit, Math.min(maxLimit, value));
+    }
+}
@@ -0,0 +1,80 @@
+package com.linktic.ms_stockflow_products.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.linktic.ms_stockflow_products.coalescing.WriteCoalescingProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Configuration
+@EnableConfigurationProperties(AdmissionControlProperties.class)
+@ConditionalOnProperty(prefix = "stockflow.admission", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionControlConfig {
+
+    @Bean
+    public AdmissionControlFilter admissionControlFilter(
+            AdmissionControlProperties properties,
+            MeterRegistry meterRegistry,
+            ObjectMapper objectMapper,
+            WriteCoalescingProperties coalescing) {
+
+        Map<Bulkhead, AdaptiveConcurrencyLimiter> limiters = new EnumMap<>(Bulkhead.class);
+        Map<Bulkhead, Counter> rejections = new EnumMap<>(Bulkhead.class);
+
+        for (Bulkhead bulkhead : Bulkhead.values()) {
+            AdmissionControlProperties.Limits limits = properties.limitsFor(bulkhead);
+            AdaptiveConcurrencyLimiter limiter = bulkhead == Bulkhead.COALESCED
+                    ? fixedLimiter(coalescing.getMaxPending(), limits)
+                    : new AdaptiveConcurrencyLimiter(
+                            limits.getInitialLimit(), limits.getMinLimit(), limits.getMaxLimit(),
+                            limits.getWindowSize(), limits.getProbeInterval(),
+                            limits.getTolerance(), limits.getSmoothing());
+            limiters.put(bulkhead, limiter);
+
+            Gauge.builder("stockflow.admission.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .description("Límite de concurrencia actual del compartimento")
+                    .tag("bulkhead", bulkhead.tag())
+                    .register(meterRegistry);
+            Gauge.builder("stockflow.admission.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                    .description("Peticiones en curso del compartimento")
+                    .tag("bulkhead", bulkhead.tag())
+                    .register(meterRegistry);
+            rejections.put(bulkhead, Counter.builder("stockflow.admission.rejected")
+                    .description("Peticiones rechazadas por control de admisión")
+                    .tag("bulkhead", bulkhead.tag())
+                    .register(meterRegistry));
+        }
+
+        return new AdmissionControlFilter(limiters, rejections, objectMapper, properties.getRetryAfterSeconds(),
+                coalescing.isEnabled());
+    }
+
+    /**
+     * Límite fijo para los PUT agrupados: su latencia es casi toda la espera de la ventana, así que el
+     * gradiente la confundiría con saturación y rechazaría peticiones que la escritura agrupada absorbe.
+     * Se dimensiona con {@code max-pending}, a partir del cual la escritura agrupada ya escribe directamente
+     */
+    private static AdaptiveConcurrencyLimiter fixedLimiter(int limit, AdmissionControlProperties.Limits limits) {
+        int fixed = Math.max(1, limit);
+        return new AdaptiveConcurrencyLimiter(fixed, fixed, fixed, limits.getWindowSize(), limits.getProbeInterval(),
+                limits.getTolerance(), limits.getSmoothing());
+    }
+
+    // El filtro es un bean para recibir los eventos de readiness; el registro evita que se aplique a todas las rutas
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilterRegistration(AdmissionControlFilter filter) {
+        FilterRegistrationBean<AdmissionControlFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
@@ -0,0 +1,107 @@
+package com.linktic.ms_stockflow_products.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.linktic.ms_stockflow_products.exception.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rechaza con 503 y Retry-After las peticiones que superan el límite de concurrencia de su compartimento,
+ * antes de que ocupen un hilo de Tomcat y una conexión a la base de datos.
+ */
+@Slf4j
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final List<String> REJECTION_DETAILS =
+            List.of("El servicio está saturado, reintente más tarde");
+
+    private final Map<Bulkhead, AdaptiveConcurrencyLimiter> limiters;
+    private final Map<Bulkhead, Counter> rejections;
+    private final ObjectMapper objectMapper;
+    private final String retryAfter;
+    private final boolean coalescedWrites;
+
+    public AdmissionControlFilter(Map<Bulkhead, AdaptiveConcurrencyLimiter> limiters,
+                                  Map<Bulkhead, Counter> rejections,
+                                  ObjectMapper objectMapper,
+                                  int retryAfterSeconds,
+                                  boolean coalescedWrites) {
+        this.limiters = limiters;
+        this.rejections = rejections;
+        this.objectMapper = objectMapper;
+        this.retryAfter = String.valueOf(retryAfterSeconds);
+        this.coalescedWrites = coalescedWrites;
+    }
+
+    /**
+     * Al pasar a {@code ACCEPTING_TRAFFIC} se descartan las muestras del calentamiento: sus peticiones locales
+     * y con el JIT todavía frío no representan la latencia sin carga del tráfico real.
+     */
+    @EventListener
+    public void onReadinessChange(AvailabilityChangeEvent<ReadinessState> event) {
+        if (event.getState() == ReadinessState.ACCEPTING_TRAFFIC) {
+            limiters.values().forEach(AdaptiveConcurrencyLimiter::reset);
+            log.debug("Límites de concurrencia reiniciados al aceptar tráfico");
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/")
+                || "OPTIONS".equalsIgnoreCase(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Bulkhead bulkhead = Bulkhead.classify(request.getMethod(), request.getRequestURI(), coalescedWrites);
+        AdaptiveConcurrencyLimiter limiter = limiters.get(bulkhead);
+
+        if (!limiter.tryAcquire()) {
+            rejections.get(bulkhead).increment();
+            log.debug("Petición rechazada por control de admisión ({}): {} {}",
+                    bulkhead.tag(), request.getMethod(), request.getRequestURI());
+            reject(request, response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limiter.release(start);
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .message("Servicio temporalmente no disponible")
+                .details(REJECTION_DETAILS)
+                .timestamp(new Date())
+                .path(request.getRequestURI())
+                .build();
+
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+}
@@ -0,0 +1,42 @@
+package com.linktic.ms_stockflow_products.admission;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "stockflow.admission")
+public class AdmissionControlProperties {
+
+    /**
+     * Habilita el control de admisión sobre /api/**
+     */
+    private boolean enabled = true;
+
+    /**
+     * Valor del header Retry-After (segundos) en las respuestas 503
+     */
+    private int retryAfterSeconds = 1;
+
+    private Map<Bulkhead, Limits> bulkheads = new EnumMap<>(Bulkhead.class);
+
+    public Limits limitsFor(Bulkhead bulkhead) {
+        return bulkheads.getOrDefault(bulkhead, new Limits());
+    }
+
+    @Data
+    public static class Limits {
+        private int initialLimit = 20;
+        private int minLimit = 2;
+        private int maxLimit = 200;
+        // Número de muestras por ventana de cálculo del gradiente
+        private int windowSize = 20;
+        // Ventanas entre cada nueva medición de la latencia sin carga
+        private int probeInterval = 500;
+        // Crecimiento de latencia tolerado antes de reducir el límite
+        private double tolerance = 1.5;
+        private double smoothing = 0.2;
+    }
+}
@@ -0,0 +1,55 @@
+package com.linktic.ms_stockflow_products.admission;
+
+/**
+ * Compartimentos independientes de concurrencia para la API de productos.
+ */
+public enum Bulkhead {
+    READ,
+    WRITE,
+    BULK,
+    COALESCED;
+
+    private static final String PRODUCTS_PATH = "/api/products";
+
+    /**
+     * Clasifica una petición según su método HTTP y su ruta.
+     * Los listados paginados, la disponibilidad por lote y la creación de trabajos de reprecio recorren muchas
+     * filas, por lo que se aíslan en {@link #BULK}. Con la escritura agrupada habilitada, los {@code PUT} de
+     * productos esperan el cierre de su ventana: su latencia no refleja la carga de la base de datos y se
+     * aíslan en {@link #COALESCED} para no alterar el límite de {@link #WRITE}.
+     */
+    public static Bulkhead classify(String method, String path, boolean coalescedWrites) {
+        boolean read = "GET".equalsIgnoreCase(method) || "HEAD".equalsIgnoreCase(method);
+        if (!read) {
+            if ("POST".equalsIgnoreCase(method) && path.equals(PRODUCTS_PATH + "/repricing-jobs")) {
+                return BULK;
+            }
+            if (coalescedWrites && "PUT".equalsIgnoreCase(method) && isProductPath(path)) {
+                return COALESCED;
+            }
+            return WRITE;
+        }
+        if (path.equals(PRODUCTS_PATH) || path.equals(PRODUCTS_PATH + "/")
+                || path.equals(PRODUCTS_PATH + "/availability")) {
+            return BULK;
+        }
+        return READ;
+    }
+
+    public String tag() {
+        return name().toLowerCase();
+    }
+
+    // /api/products/{productCode}
+    private static boolean isProductPath(String path) {
+        if (!path.startsWith(PRODUCTS_PATH + "/") || path.length() == PRODUCTS_PATH.length() + 1) {
+            return false;
+        }
+        for (int i = PRODUCTS_PATH.length() + 1; i < path.length(); i++) {
+            if (!Character.isDigit(path.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,92 @@
+package com.linktic.ms_stockflow_products.coalescing;
+
+import com.linktic.ms_stockflow_products.controller.dto.ProductDTO;
+import com.linktic.ms_stockflow_products.controller.dto.ProductUpdateDTO;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Cambios pendientes de un producto: cada campo conserva el último valor recibido (last-write-wins)
+ * y se guardan las peticiones que esperan la confirmación de la escritura. Solo se modifica dentro de
+ * {@code ConcurrentHashMap.compute}, y se lee después de retirarlo del mapa. {@link #written} se completa
+ * cuando termina su escritura, con o sin éxito.
+ */
+class PendingUpdate {
+
+    final Integer productCode;
+    final List<CompletableFuture<ProductDTO>> waiters = new ArrayList<>(1);
+    final CompletableFuture<Void> written = new CompletableFuture<>();
+    String name;
+    String description;
+    Integer price;
+    Boolean active;
+    int updates;
+    int attempts;
+
+    PendingUpdate(Integer productCode) {
+        this.productCode = productCode;
+    }
+
+    void merge(ProductUpdateDTO request, CompletableFuture<ProductDTO> waiter) {
+        if (request.getName() != null) {
+            name = request.getName();
+        }
+        if (request.getDescription() != null) {
+            description = request.getDescription();
+        }
+        if (request.getPrice() != null) {
+            price = request.getPrice();
+        }
+        if (request.getActive() != null) {
+            active = request.getActive();
+        }
+        if (waiter != null) {
+            waiters.add(waiter);
+        }
+        updates++;
+    }
+
+    /**
+     * Reincorpora los cambios de un intento fallido, que son anteriores a los de esta entrada: solo
+     * aportan los campos que esta no tiene
+     */
+    void mergeOlder(PendingUpdate older) {
+        if (name == null) {
+            name = older.name;
+        }
+        if (description == null) {
+            description = older.description;
+        }
+        if (price == null) {
+            price = older.price;
+        }
+        if (active == null) {
+            active = older.active;
+        }
+        waiters.addAll(0, older.waiters);
+        updates += older.updates;
+        attempts = Math.max(attempts, older.attempts);
+    }
+
+    /**
+     * Cambios combinados como una única actualización parcial, para escribirlos por la ruta directa
+     */
+    ProductUpdateDTO toRequest() {
+        return ProductUpdateDTO.builder()
+                .name(name)
+                .description(description)
+                .price(price)
+                .active(active)
+                .build();
+    }
+
+    void complete(ProductDTO product) {
+        waiters.forEach(waiter -> waiter.complete(product));
+    }
+
+    void fail(RuntimeException error) {
+        waiters.forEach(waiter -> waiter.completeExceptionally(error));
+    }
+}
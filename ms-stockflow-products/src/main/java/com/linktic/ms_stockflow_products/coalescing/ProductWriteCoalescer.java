@@ -0,0 +1,407 @@
+package com.linktic.ms_stockflow_products.coalescing;
+
+import com.linktic.ms_stockflow_products.controller.dto.ProductDTO;
+import com.linktic.ms_stockflow_products.controller.dto.ProductUpdateDTO;
+import com.linktic.ms_stockflow_products.domain.builder.ObjectBuilder;
+import com.linktic.ms_stockflow_products.domain.entity.Product;
+import com.linktic.ms_stockflow_products.domain.repository.ProductRepository;
+import com.linktic.ms_stockflow_products.domain.repository.projection.ProductStateRow;
+import com.linktic.ms_stockflow_products.exception.ProductNotFoundException;
+import com.linktic.ms_stockflow_products.existence.ProductExistenceFilter;
+import com.linktic.ms_stockflow_products.service.CatalogStatsService;
+import com.linktic.ms_stockflow_products.service.ProductService;
+import com.linktic.ms_stockflow_products.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Escritura diferida de actualizaciones de productos. Las actualizaciones parciales que llegan para un
+ * mismo código dentro de una ventana ({@code stockflow.write-coalescing.window}) se combinan campo a campo
+ * (gana el último valor recibido) y cada ventana se escribe con una transacción por shard: un bloqueo
+ * ordenado de las filas y una sola sentencia {@code UPDATE} para todos los productos. Un producto muy
+ * actualizado paga un bloqueo, una ejecución del trigger y una entrada de WAL por ventana, en lugar de
+ * una por petición.
+ * <p>
+ * Si la transacción de una ventana falla, sus productos se escriben uno a uno, para que una fila inválida
+ * no arrastre a los demás. Un producto cuya escritura falla vuelve a la ventana siguiente, combinado
+ * debajo de los cambios recibidos mientras tanto, hasta {@code max-attempts} intentos.
+ * <p>
+ * Confirmación y durabilidad:
+ * <ul>
+ *     <li>{@link #update}: espera a que la transacción de su ventana se confirme; misma durabilidad que la
+ *     escritura directa, con hasta una ventana más de latencia por intento.</li>
+ *     <li>{@link #submit}: confirma al quedar combinada en memoria. Se escribe en la siguiente ventana y se
+ *     pierde si el proceso termina abruptamente antes; al apagarse ordenadamente se escriben los cambios
+ *     pendientes. Los códigos archivados se restauran al escribir. Los códigos que el filtro de existencia
+ *     descarta responden 404 sin encolarse; se descartan, y solo quedan registrados en
+ *     {@code stockflow.coalescing.discarded}, los cambios de códigos inexistentes que pasan el filtro, los que
+ *     violan una restricción de la base de datos y los que agotan los intentos.</li>
+ * </ul>
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(prefix = "stockflow.write-coalescing", name = "enabled", havingValue = "true")
+public class ProductWriteCoalescer {
+
+    private final ProductRepository productRepository;
+    private final ProductService productService;
+    private final CatalogStatsService catalogStatsService;
+    private final ProductExistenceFilter existenceFilter;
+    private final ObjectBuilder objectBuilder;
+    private final ObjectProvider<ShardRouter> shardRouter;
+    private final WriteCoalescingProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ScheduledExecutorService flusher;
+
+    private final ConcurrentHashMap<Integer, PendingUpdate> pending = new ConcurrentHashMap<>();
+    // Retiradas de pending y aún sin terminar de escribir; como máximo una por producto
+    private final ConcurrentHashMap<Integer, PendingUpdate> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter acceptedSync;
+    private final Counter acceptedAsync;
+    private final Counter bypassed;
+    private final Counter writtenRows;
+    private final Counter discarded;
+    private final Counter retried;
+    private final Timer flushTimer;
+
+    public ProductWriteCoalescer(ProductRepository productRepository,
+                                 ProductService productService,
+                                 CatalogStatsService catalogStatsService,
+                                 ProductExistenceFilter existenceFilter,
+                                 ObjectBuilder objectBuilder,
+                                 ObjectProvider<ShardRouter> shardRouter,
+                                 WriteCoalescingProperties properties,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.productService = productService;
+        this.catalogStatsService = catalogStatsService;
+        this.existenceFilter = existenceFilter;
+        this.objectBuilder = objectBuilder;
+        this.shardRouter = shardRouter;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        this.acceptedSync = Counter.builder("stockflow.coalescing.accepted")
+                .description("Actualizaciones recibidas para escritura agrupada")
+                .tag("mode", "sync")
+                .register(meterRegistry);
+        this.acceptedAsync = Counter.builder("stockflow.coalescing.accepted")
+                .description("Actualizaciones recibidas para escritura agrupada")
+                .tag("mode", "async")
+                .register(meterRegistry);
+        this.bypassed = Counter.builder("stockflow.coalescing.bypassed")
+                .description("Actualizaciones escritas directamente por exceder max-pending")
+                .register(meterRegistry);
+        this.writtenRows = Counter.builder("stockflow.coalescing.rows")
+                .description("Filas escritas por las ventanas de escritura agrupada")
+                .register(meterRegistry);
+        this.discarded = Counter.builder("stockflow.coalescing.discarded")
+                .description("Actualizaciones confirmadas en diferido descartadas por producto inexistente o error")
+                .register(meterRegistry);
+        this.retried = Counter.builder("stockflow.coalescing.retried")
+                .description("Cambios de un producto devueltos a la ventana siguiente tras fallar su escritura")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("stockflow.coalescing.flush")
+                .description("Duración de la escritura de una ventana")
+                .register(meterRegistry);
+        Gauge.builder("stockflow.coalescing.pending", pending, Map::size)
+                .description("Productos con cambios pendientes de escribir")
+                .register(meterRegistry);
+
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "write-coalescer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long windowMicros = Math.max(1, TimeUnit.NANOSECONDS.toMicros(properties.getWindow().toNanos()));
+        flusher.scheduleWithFixedDelay(this::flushPending, windowMicros, windowMicros, TimeUnit.MICROSECONDS);
+    }
+
+    /**
+     * Combina la actualización con las pendientes del producto y espera a que se escriba
+     * @return producto tal como quedó tras la escritura de la ventana
+     */
+    public ProductDTO update(Integer productCode, ProductUpdateDTO request) {
+        requireMightExist(productCode);
+        CompletableFuture<ProductDTO> result = new CompletableFuture<>();
+        if (!enqueue(productCode, request, result)) {
+            return productService.updateProduct(productCode, request);
+        }
+        acceptedSync.increment();
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Combina la actualización con las pendientes del producto sin esperar a que se escriba
+     * @throws ProductNotFoundException si el filtro de existencia descarta el código: no se confirma una
+     * actualización que se descartaría al escribirla
+     */
+    public void submit(Integer productCode, ProductUpdateDTO request) {
+        requireMightExist(productCode);
+        if (!enqueue(productCode, request, null)) {
+            productService.updateProduct(productCode, request);
+            return;
+        }
+        acceptedAsync.increment();
+    }
+
+    /**
+     * Escribe de inmediato los cambios pendientes del producto, y espera la escritura que ya esté en curso,
+     * para que una escritura directa posterior (por ejemplo, la eliminación lógica) no quede sobrescrita
+     * por cambios recibidos antes que ella
+     */
+    public void flush(Integer productCode) {
+        while (true) {
+            PendingUpdate entry = take(productCode);
+            if (entry != null) {
+                write(List.of(entry));
+                continue;
+            }
+            PendingUpdate writing = inFlight.get(productCode);
+            if (writing != null) {
+                writing.written.join();
+            } else if (!pending.containsKey(productCode)) {
+                return;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        flusher.shutdown();
+        if (!flusher.awaitTermination(10, TimeUnit.SECONDS)) {
+            flusher.shutdownNow();
+        }
+        // Última ventana: los cambios confirmados en diferido se escriben antes de detener el servicio;
+        // los que fallan vuelven a pending, así que se repite hasta agotar sus intentos
+        for (int i = 0; i < properties.getMaxAttempts() && !pending.isEmpty(); i++) {
+            flushPending();
+        }
+    }
+
+    private void requireMightExist(Integer productCode) {
+        if (!existenceFilter.mightExist(productCode)) {
+            log.debug("Producto con código {} descartado por el filtro de existencia", productCode);
+            throw new ProductNotFoundException(productCode);
+        }
+    }
+
+    private boolean enqueue(Integer productCode, ProductUpdateDTO request, CompletableFuture<ProductDTO> waiter) {
+        if (pending.size() >= properties.getMaxPending() && !pending.containsKey(productCode)
+                && !inFlight.containsKey(productCode)) {
+            bypassed.increment();
+            return false;
+        }
+        pending.compute(productCode, (code, entry) -> {
+            PendingUpdate merged = entry != null ? entry : new PendingUpdate(code);
+            merged.merge(request, waiter);
+            return merged;
+        });
+        return true;
+    }
+
+    void flushPending() {
+        try {
+            // Una sola pasada por ventana: lo que llegue o se reintente mientras tanto espera a la siguiente
+            List<PendingUpdate> batch = new ArrayList<>();
+            for (Integer productCode : List.copyOf(pending.keySet())) {
+                PendingUpdate entry = take(productCode);
+                if (entry != null) {
+                    batch.add(entry);
+                }
+                if (batch.size() >= properties.getMaxBatchSize()) {
+                    write(batch);
+                    batch = new ArrayList<>();
+                }
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+        } catch (RuntimeException e) {
+            log.error("Error en la escritura agrupada de productos: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Retira los cambios pendientes del producto y los marca en curso, salvo que ya haya una escritura del
+     * mismo producto en curso: dos escrituras simultáneas podrían confirmarse en desorden
+     */
+    private PendingUpdate take(Integer productCode) {
+        PendingUpdate[] taken = new PendingUpdate[1];
+        pending.computeIfPresent(productCode, (code, entry) -> {
+            if (inFlight.putIfAbsent(code, entry) != null) {
+                return entry;
+            }
+            taken[0] = entry;
+            return null;
+        });
+        return taken[0];
+    }
+
+    private void write(List<PendingUpdate> batch) {
+        ShardRouter router = shardRouter.getIfAvailable();
+        if (router == null) {
+            writeBatch(batch);
+            return;
+        }
+        Map<Integer, List<PendingUpdate>> batchByShard = batch.stream()
+                .collect(Collectors.groupingBy(entry -> router.shardFor(entry.productCode)));
+        router.scatter(batchByShard.keySet(), shard -> {
+            writeBatch(batchByShard.get(shard));
+            return null;
+        });
+    }
+
+    private void writeBatch(List<PendingUpdate> batch) {
+        Map<Integer, Product> updated;
+        try {
+            updated = flushTimer.record(() -> transactionTemplate.execute(status -> apply(batch)));
+        } catch (RuntimeException e) {
+            if (batch.size() > 1) {
+                // Una fila que falla no debe descartar los cambios de los demás productos de la ventana
+                log.warn("No se pudieron escribir {} productos agrupados, se escriben uno a uno: {}",
+                        batch.size(), e.getMessage());
+                batch.forEach(entry -> writeBatch(List.of(entry)));
+            } else {
+                retryOrDiscard(batch.get(0), e);
+            }
+            return;
+        }
+
+        writtenRows.increment(updated.size());
+        for (PendingUpdate entry : batch) {
+            Product product = updated.get(entry.productCode);
+            if (product == null) {
+                writeDirect(entry);
+            } else {
+                entry.complete(objectBuilder.map(product, ProductDTO.class));
+                release(entry);
+            }
+        }
+    }
+
+    /**
+     * Los códigos que no están en la tabla caliente siguen la ruta directa: un producto archivado se restaura
+     * y uno inexistente termina en {@link ProductNotFoundException}
+     */
+    private void writeDirect(PendingUpdate entry) {
+        try {
+            entry.complete(productService.updateProduct(entry.productCode, entry.toRequest()));
+            release(entry);
+        } catch (RuntimeException e) {
+            retryOrDiscard(entry, e);
+        }
+    }
+
+    private void retryOrDiscard(PendingUpdate entry, RuntimeException error) {
+        entry.attempts++;
+        // Un código inexistente o una fila que viola una restricción fallarían igual en el siguiente intento
+        if (error instanceof ProductNotFoundException || error instanceof DataIntegrityViolationException) {
+            discard(entry, error);
+            return;
+        }
+        if (entry.attempts >= properties.getMaxAttempts()) {
+            log.error("Se descartan los cambios del producto {} tras {} intentos: {}",
+                    entry.productCode, entry.attempts, error.getMessage());
+            discard(entry, error);
+            return;
+        }
+        retried.increment();
+        // Copia nueva, combinada debajo de los cambios recibidos mientras se escribía; quien espere la
+        // escritura de esta entrada la encontrará en pending
+        PendingUpdate retry = new PendingUpdate(entry.productCode);
+        retry.mergeOlder(entry);
+        pending.merge(entry.productCode, retry, (newer, older) -> {
+            newer.mergeOlder(older);
+            return newer;
+        });
+        release(entry);
+    }
+
+    private void discard(PendingUpdate entry, RuntimeException error) {
+        recordDiscarded(entry);
+        entry.fail(error);
+        release(entry);
+    }
+
+    private void release(PendingUpdate entry) {
+        inFlight.remove(entry.productCode, entry);
+        entry.written.complete(null);
+    }
+
+    private Map<Integer, Product> apply(List<PendingUpdate> batch) {
+        List<Integer> productCodes = batch.stream().map(entry -> entry.productCode).toList();
+        Map<Integer, ProductStateRow> previous = new HashMap<>();
+        productRepository.lockForUpdate(productCodes).forEach(row -> previous.put(row.getProductCode(), row));
+
+        List<PendingUpdate> existing = batch.stream()
+                .filter(entry -> previous.containsKey(entry.productCode))
+                .toList();
+        if (existing.isEmpty()) {
+            return Map.of();
+        }
+
+        int size = existing.size();
+        Integer[] codes = new Integer[size];
+        String[] names = new String[size];
+        String[] descriptions = new String[size];
+        Integer[] prices = new Integer[size];
+        Boolean[] actives = new Boolean[size];
+        for (int i = 0; i < size; i++) {
+            PendingUpdate entry = existing.get(i);
+            codes[i] = entry.productCode;
+            names[i] = entry.name;
+            descriptions[i] = entry.description;
+            prices[i] = entry.price;
+            actives[i] = entry.active;
+        }
+
+        Map<Integer, Product> updated = new HashMap<>();
+        for (Product product : productRepository.applyMergedUpdates(codes, names, descriptions, prices, actives)) {
+            ProductStateRow before = previous.get(product.getProductCode());
+            catalogStatsService.recordUpdated(before.getPrice(), before.getActive(), product.getPrice(), product.getActive());
+            updated.put(product.getProductCode(), product);
+        }
+        return updated;
+    }
+
+    private void recordDiscarded(PendingUpdate entry) {
+        // Las peticiones que esperan reciben el error; las confirmadas en diferido solo quedan registradas
+        int unacknowledged = entry.updates - entry.waiters.size();
+        if (unacknowledged > 0) {
+            discarded.increment(unacknowledged);
+            log.warn("Se descartaron {} actualizaciones diferidas del producto {}", unacknowledged, entry.productCode);
+        }
+    }
+}
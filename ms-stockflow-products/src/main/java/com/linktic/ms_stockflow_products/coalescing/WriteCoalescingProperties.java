@@ -0,0 +1,38 @@
+package com.linktic.ms_stockflow_products.coalescing;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "stockflow.write-coalescing")
+public class WriteCoalescingProperties {
+
+    /**
+     * Agrupa las actualizaciones de PUT /api/products/{productCode} en escrituras por ventana
+     */
+    private boolean enabled = false;
+
+    /**
+     * Ventana entre escrituras; es también la espera adicional máxima de una actualización
+     */
+    private Duration window = Duration.ofMillis(20);
+
+    /**
+     * Productos distintos por sentencia de escritura
+     */
+    private int maxBatchSize = 500;
+
+    /**
+     * Productos con cambios pendientes a partir de los cuales las actualizaciones de productos nuevos
+     * se escriben directamente, sin agrupar
+     */
+    private int maxPending = 10_000;
+
+    /**
+     * Intentos de escritura de los cambios de un producto antes de descartarlos; entre intentos vuelven
+     * a la ventana siguiente, combinados debajo de los cambios recibidos después
+     */
+    private int maxAttempts = 3;
+}
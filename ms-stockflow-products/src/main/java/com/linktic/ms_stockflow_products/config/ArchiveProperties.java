@@ -0,0 +1,36 @@
+package com.linktic.ms_stockflow_products.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "stockflow.archive")
+public class ArchiveProperties {
+
+    /**
+     * Habilita el archivador de productos inactivos
+     */
+    private boolean enabled = true;
+
+    /**
+     * Tiempo sin cambios que debe llevar un producto inactivo para archivarse
+     */
+    private Duration inactiveFor = Duration.ofDays(90);
+
+    /**
+     * Productos movidos por transacción
+     */
+    private int batchSize = 500;
+
+    /**
+     * Lotes máximos por ejecución, para acotar la carga sobre la base de datos
+     */
+    private int maxBatchesPerRun = 200;
+
+    /**
+     * Intervalo entre ejecuciones del archivador
+     */
+    private Duration interval = Duration.ofHours(1);
+}
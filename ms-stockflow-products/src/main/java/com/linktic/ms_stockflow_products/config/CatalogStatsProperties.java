@@ -0,0 +1,22 @@
+package com.linktic.ms_stockflow_products.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "stockflow.stats")
+public class CatalogStatsProperties {
+
+    /**
+     * Límites (ascendentes) de los rangos del histograma de precios
+     */
+    private List<Integer> histogramBounds = List.of(50000, 100000, 250000, 500000, 1000000);
+
+    /**
+     * Intervalo del recálculo completo que verifica los agregados incrementales
+     */
+    private Duration verifyInterval = Duration.ofMinutes(5);
+}
@@ -0,0 +1,30 @@
+package com.linktic.ms_stockflow_products.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "stockflow.repricing")
+public class RepricingProperties {
+
+    /**
+     * Rangos procesados en paralelo, compartidos por todos los trabajos; acota las conexiones y la
+     * carga de escritura que el reprecio toma de la base de datos
+     */
+    private int parallelism = 4;
+
+    /**
+     * Rangos de product_code en que se divide el catálogo de cada shard
+     */
+    private int rangesPerShard = 16;
+
+    /**
+     * Productos actualizados por transacción
+     */
+    private int chunkSize = 1000;
+
+    /**
+     * Reanuda al arrancar los trabajos que quedaron en curso
+     */
+    private boolean resumeOnStartup = true;
+}
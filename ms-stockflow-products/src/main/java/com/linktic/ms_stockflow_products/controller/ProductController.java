@@ -1,9 +1,13 @@
 package com.linktic.ms_stockflow_products.controller;
 
+import com.linktic.ms_stockflow_products.coalescing.ProductWriteCoalescer;
+import com.linktic.ms_stockflow_products.controller.dto.ProductAvailabilityDTO;
 import com.linktic.ms_stockflow_products.controller.dto.ProductCreateDTO;
 import com.linktic.ms_stockflow_products.controller.dto.ProductDTO;
+import com.linktic.ms_stockflow_products.controller.dto.ProductStatsDTO;
 import com.linktic.ms_stockflow_products.controller.dto.ProductUpdateDTO;
 import com.linktic.ms_stockflow_products.exception.ErrorResponse;
+import com.linktic.ms_stockflow_products.service.CatalogStatsService;
 import com.linktic.ms_stockflow_products.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -14,6 +18,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -22,13 +27,21 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
+import java.util.Arrays;
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/products")
 @RequiredArgsConstructor
 @Tag(name = "Products", description = "API para la gestión de productos")
 public class ProductController {
 
+    private static final String RESPOND_ASYNC = "respond-async";
+
     private final ProductService productService;
+    private final CatalogStatsService catalogStatsService;
+    private final ObjectProvider<ProductWriteCoalescer> writeCoalescer;
 
     @Operation(
             summary = "Crear un nuevo producto",
@@ -58,6 +71,24 @@ public class ProductController {
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
+    @Operation(
+            summary = "Obtener estadísticas del catálogo",
+            description = "Obtiene totales, productos activos, precios mínimo, máximo y promedio, " +
+                    "e histograma de precios sin recorrer el catálogo completo"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Estadísticas obtenidas exitosamente",
+                    content = @Content(schema = @Schema(implementation = ProductStatsDTO.class))
+            )
+    })
+    @GetMapping("/stats")
+    public ResponseEntity<ProductStatsDTO> getStats() {
+        ProductStatsDTO response = catalogStatsService.getStats();
+        return ResponseEntity.ok(response);
+    }
+
     @Operation(
             summary = "Obtener producto por ID",
             description = "Obtiene un producto específico mediante su código identificador"
@@ -84,7 +115,10 @@ public class ProductController {
 
     @Operation(
             summary = "Actualizar producto",
-            description = "Actualiza los datos de un producto existente. Solo se actualizan los campos enviados (no nulos)"
+            description = "Actualiza los datos de un producto existente. Solo se actualizan los campos enviados (no nulos). " +
+                    "Un producto archivado se restaura a la tabla de productos antes de actualizarse. " +
+                    "Con la escritura agrupada habilitada, la cabecera Prefer: respond-async confirma con 202 " +
+                    "antes de escribir el cambio"
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -92,6 +126,10 @@ public class ProductController {
                     description = "Producto actualizado exitosamente",
                     content = @Content(schema = @Schema(implementation = ProductDTO.class))
             ),
+            @ApiResponse(
+                    responseCode = "202",
+                    description = "Actualización aceptada; se escribirá en la siguiente ventana de escritura agrupada"
+            ),
             @ApiResponse(
                     responseCode = "400",
                     description = "Datos de entrada inválidos",
@@ -107,9 +145,21 @@ public class ProductController {
     public ResponseEntity<ProductDTO> updateProduct(
             @Parameter(description = "Código del producto a actualizar", required = true, example = "1001")
             @PathVariable Integer productCode,
-            @Valid @RequestBody ProductUpdateDTO request) {
-        ProductDTO response = productService.updateProduct(productCode, request);
-        return ResponseEntity.ok(response);
+            @Valid @RequestBody ProductUpdateDTO request,
+            @Parameter(description = "respond-async para confirmar sin esperar la escritura (requiere escritura agrupada)")
+            @RequestHeader(value = "Prefer", required = false) String prefer) {
+        ProductWriteCoalescer coalescer = writeCoalescer.getIfAvailable();
+        if (coalescer == null) {
+            return ResponseEntity.ok(productService.updateProduct(productCode, request));
+        }
+        if (prefer != null && Arrays.stream(prefer.split(",")).map(String::trim).anyMatch(RESPOND_ASYNC::equalsIgnoreCase)) {
+            coalescer.submit(productCode, request);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/products/" + productCode))
+                    .header("Preference-Applied", RESPOND_ASYNC)
+                    .build();
+        }
+        return ResponseEntity.ok(coalescer.update(productCode, request));
     }
 
     @Operation(
@@ -131,13 +181,18 @@ public class ProductController {
     public ResponseEntity<Void> deleteProduct(
             @Parameter(description = "Código del producto a eliminar", required = true, example = "1001")
             @PathVariable Integer productCode) {
+        ProductWriteCoalescer coalescer = writeCoalescer.getIfAvailable();
+        if (coalescer != null) {
+            // Los cambios agrupados recibidos antes se escriben primero, para no sobrescribir la eliminación
+            coalescer.flush(productCode);
+        }
         productService.deleteProduct(productCode);
         return ResponseEntity.noContent().build();
     }
 
     @Operation(
             summary = "Listar todos los productos",
-            description = "Obtiene una lista paginada de todos los productos del sistema"
+            description = "Obtiene una lista paginada de los productos del sistema; los productos archivados no se listan"
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -155,14 +210,98 @@ public class ProductController {
             @Parameter(description = "Campo para ordenar", example = "productCode")
             @RequestParam(defaultValue = "productCode") String sortBy,
             @Parameter(description = "Dirección de ordenamiento (ASC o DESC)", example = "ASC")
-            @RequestParam(defaultValue = "ASC") String sortDirection) {
+            @RequestParam(defaultValue = "ASC") String sortDirection,
+            @Parameter(description = "Filtrar por estado (true o false); sin valor lista todos", example = "true")
+            @RequestParam(required = false) Boolean active) {
 
         Sort.Direction direction = sortDirection.equalsIgnoreCase("DESC")
                 ? Sort.Direction.DESC
                 : Sort.Direction.ASC;
         Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
 
-        Page<ProductDTO> response = productService.getAllProducts(pageable);
+        Page<ProductDTO> response = productService.getAllProducts(active, pageable);
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(
+            summary = "Obtener producto con su stock",
+            description = "Obtiene un producto junto con su cantidad disponible en stock en una sola consulta"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Producto encontrado",
+                    content = @Content(schema = @Schema(implementation = ProductAvailabilityDTO.class))
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Producto no encontrado",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    @GetMapping("/{productCode}/availability")
+    public ResponseEntity<ProductAvailabilityDTO> getProductAvailability(
+            @Parameter(description = "Código del producto a buscar", required = true, example = "1001")
+            @PathVariable Integer productCode) {
+        ProductAvailabilityDTO response = productService.getProductAvailability(productCode);
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(
+            summary = "Obtener varios productos con su stock",
+            description = "Obtiene hasta 100 productos junto con su stock disponible en una sola consulta. " +
+                    "Los códigos inexistentes se omiten de la respuesta"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Productos obtenidos exitosamente"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Se superó el máximo de códigos por petición",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    @GetMapping(value = "/availability", params = "codes")
+    public ResponseEntity<List<ProductAvailabilityDTO>> getProductsAvailability(
+            @Parameter(description = "Códigos de los productos separados por coma", required = true, example = "1,2,3")
+            @RequestParam List<Integer> codes) {
+        // Se valida aquí y no en el servicio: en modo particionado el lote se divide por shard antes de llegar a él
+        if (codes.size() > ProductService.MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException(
+                    "Se pueden consultar como máximo " + ProductService.MAX_BATCH_SIZE + " productos por petición");
+        }
+        List<ProductAvailabilityDTO> response = productService.getProductsAvailability(codes);
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(
+            summary = "Listar productos con su stock",
+            description = "Obtiene una lista paginada de productos junto con su stock disponible, ordenada por código"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Lista obtenida exitosamente",
+                    content = @Content(schema = @Schema(implementation = Page.class))
+            )
+    })
+    @GetMapping("/availability")
+    public ResponseEntity<Page<ProductAvailabilityDTO>> getAllProductsAvailability(
+            @Parameter(description = "Número de página (inicia en 0)", example = "0")
+            @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Tamaño de página", example = "10")
+            @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Dirección de ordenamiento por código (ASC o DESC)", example = "ASC")
+            @RequestParam(defaultValue = "ASC") String sortDirection) {
+
+        Sort.Direction direction = sortDirection.equalsIgnoreCase("DESC")
+                ? Sort.Direction.DESC
+                : Sort.Direction.ASC;
+        Pageable pageable = PageRequest.of(page, size, Sort.by(direction, "productCode"));
+
+        Page<ProductAvailabilityDTO> response = productService.getAllProductsAvailability(pageable);
         return ResponseEntity.ok(response);
     }
 }
@@ -0,0 +1,123 @@
+package com.linktic.ms_stockflow_products.controller;
+
+import com.linktic.ms_stockflow_products.controller.dto.RepricingJobDTO;
+import com.linktic.ms_stockflow_products.controller.dto.RepricingJobRequestDTO;
+import com.linktic.ms_stockflow_products.exception.ErrorResponse;
+import com.linktic.ms_stockflow_products.service.RepricingJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/products/repricing-jobs")
+@RequiredArgsConstructor
+@Tag(name = "Repricing", description = "API para el reprecio masivo del catálogo")
+public class RepricingJobController {
+
+    private final RepricingJobService repricingJobService;
+
+    @Operation(
+            summary = "Crear un trabajo de reprecio",
+            description = "Aplica un porcentaje o un incremento fijo al precio de los productos que cumplen los filtros. " +
+                    "El trabajo se ejecuta en segundo plano; su avance se consulta con GET /api/products/repricing-jobs/{jobId}"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "202",
+                    description = "Trabajo creado y en ejecución",
+                    content = @Content(schema = @Schema(implementation = RepricingJobDTO.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Regla o filtros inválidos",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    @PostMapping
+    public ResponseEntity<RepricingJobDTO> createJob(@Valid @RequestBody RepricingJobRequestDTO request) {
+        RepricingJobDTO response = repricingJobService.createJob(request);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/products/repricing-jobs/" + response.getJobId()))
+                .body(response);
+    }
+
+    @Operation(
+            summary = "Listar trabajos de reprecio",
+            description = "Obtiene los últimos 20 trabajos de reprecio con su avance"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Trabajos obtenidos exitosamente",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = RepricingJobDTO.class)))
+            )
+    })
+    @GetMapping
+    public ResponseEntity<List<RepricingJobDTO>> getRecentJobs() {
+        return ResponseEntity.ok(repricingJobService.getRecentJobs());
+    }
+
+    @Operation(
+            summary = "Consultar un trabajo de reprecio",
+            description = "Obtiene el estado, el avance y el throughput de un trabajo de reprecio"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Trabajo encontrado",
+                    content = @Content(schema = @Schema(implementation = RepricingJobDTO.class))
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Trabajo no encontrado",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    @GetMapping("/{jobId}")
+    public ResponseEntity<RepricingJobDTO> getJob(
+            @Parameter(description = "Identificador del trabajo", required = true)
+            @PathVariable UUID jobId) {
+        return ResponseEntity.ok(repricingJobService.getJob(jobId));
+    }
+
+    @Operation(
+            summary = "Reanudar un trabajo de reprecio",
+            description = "Reanuda un trabajo fallido desde el último lote confirmado de cada rango"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "202",
+                    description = "Trabajo reanudado",
+                    content = @Content(schema = @Schema(implementation = RepricingJobDTO.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "El trabajo ya terminó",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Trabajo no encontrado",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    @PostMapping("/{jobId}/resume")
+    public ResponseEntity<RepricingJobDTO> resumeJob(
+            @Parameter(description = "Identificador del trabajo", required = true)
+            @PathVariable UUID jobId) {
+        return ResponseEntity.accepted().body(repricingJobService.resumeJob(jobId));
+    }
+}
@@ -0,0 +1,21 @@
+package com.linktic.ms_stockflow_products.controller.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Rango del histograma de precios")
+public class PriceBucketDTO {
+
+    @Schema(description = "Precio mínimo del rango (inclusivo)", example = "100000")
+    private Integer fromPrice;
+
+    @Schema(description = "Precio máximo del rango (exclusivo); nulo en el último rango", example = "250000")
+    private Integer toPrice;
+
+    @Schema(description = "Cantidad de productos en el rango", example = "42")
+    private Long count;
+}
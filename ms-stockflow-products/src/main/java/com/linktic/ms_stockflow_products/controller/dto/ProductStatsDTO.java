@@ -0,0 +1,41 @@
+package com.linktic.ms_stockflow_products.controller.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.util.Date;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Estadísticas agregadas del catálogo de productos")
+public class ProductStatsDTO {
+
+    @Schema(description = "Cantidad total de productos", example = "1250")
+    private Long totalProducts;
+
+    @Schema(description = "Cantidad de productos activos", example = "1100")
+    private Long activeProducts;
+
+    @Schema(description = "Cantidad de productos inactivos", example = "150")
+    private Long inactiveProducts;
+
+    @Schema(description = "Precio mínimo del catálogo", example = "79900")
+    private Integer minPrice;
+
+    @Schema(description = "Precio máximo del catálogo", example = "1299000")
+    private Integer maxPrice;
+
+    @Schema(description = "Precio promedio del catálogo", example = "388900.5")
+    private Double averagePrice;
+
+    @Schema(description = "Histograma de precios")
+    private List<PriceBucketDTO> priceHistogram;
+
+    @Schema(description = "Fecha de la última verificación completa", example = "2025-11-11T10:30:00")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private Date verifiedAt;
+}
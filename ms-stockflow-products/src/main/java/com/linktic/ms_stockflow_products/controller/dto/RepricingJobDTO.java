@@ -0,0 +1,66 @@
+package com.linktic.ms_stockflow_products.controller.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.linktic.ms_stockflow_products.domain.entity.RepricingJobStatus;
+import com.linktic.ms_stockflow_products.domain.entity.RepricingRuleType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Estado y avance de un trabajo de reprecio masivo")
+public class RepricingJobDTO {
+
+    @Schema(description = "Identificador del trabajo", example = "3f2a5c1e-8d4b-4e0a-9b7c-2d1f6e8a9c03")
+    private UUID jobId;
+
+    @Schema(description = "Tipo de regla", example = "PERCENTAGE")
+    private RepricingRuleType ruleType;
+
+    @Schema(description = "Valor de la regla", example = "7.5")
+    private BigDecimal value;
+
+    @Schema(description = "Filtro por estado activo", example = "true")
+    private Boolean active;
+
+    @Schema(description = "Filtro de precio mínimo", example = "100000")
+    private Integer minPrice;
+
+    @Schema(description = "Filtro de precio máximo", example = "1000000")
+    private Integer maxPrice;
+
+    @Schema(description = "Estado: RUNNING, COMPLETED o FAILED", example = "RUNNING")
+    private RepricingJobStatus status;
+
+    @Schema(description = "Rangos de product_code del trabajo", example = "16")
+    private Integer totalRanges;
+
+    @Schema(description = "Rangos terminados", example = "9")
+    private Integer completedRanges;
+
+    @Schema(description = "Porcentaje de códigos recorridos", example = "56.3")
+    private Double progressPercent;
+
+    @Schema(description = "Productos con precio modificado hasta ahora", example = "562840")
+    private Long productsUpdated;
+
+    @Schema(description = "Productos modificados por segundo desde el inicio", example = "48210.4")
+    private Double productsPerSecond;
+
+    @Schema(description = "Error que detuvo el trabajo, si lo hubo")
+    private String errorMessage;
+
+    @Schema(description = "Fecha de inicio", example = "2025-11-11T10:30:00")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private Date startedAt;
+
+    @Schema(description = "Fecha de finalización", example = "2025-11-11T10:30:21")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private Date finishedAt;
+}
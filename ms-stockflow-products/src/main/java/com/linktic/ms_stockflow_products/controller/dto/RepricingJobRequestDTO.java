@@ -0,0 +1,38 @@
+package com.linktic.ms_stockflow_products.controller.dto;
+
+import com.linktic.ms_stockflow_products.domain.entity.RepricingRuleType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Request para crear un trabajo de reprecio masivo")
+public class RepricingJobRequestDTO {
+
+    @Schema(description = "Tipo de regla: PERCENTAGE (porcentaje sobre el precio actual) o FIXED (incremento fijo)",
+            example = "PERCENTAGE", requiredMode = Schema.RequiredMode.REQUIRED)
+    @NotNull(message = "El tipo de regla es obligatorio")
+    private RepricingRuleType ruleType;
+
+    @Schema(description = "Porcentaje (p. ej. 7.5 o -10) o incremento fijo en pesos (p. ej. 5000 o -2000)",
+            example = "7.5", requiredMode = Schema.RequiredMode.REQUIRED)
+    @NotNull(message = "El valor de la regla es obligatorio")
+    @Digits(integer = 10, fraction = 2, message = "El valor admite como máximo 2 decimales")
+    private BigDecimal value;
+
+    @Schema(description = "Solo productos activos (true) o inactivos (false); todos si se omite", example = "true")
+    private Boolean active;
+
+    @Schema(description = "Precio mínimo (inclusive) de los productos a modificar", example = "100000")
+    @PositiveOrZero(message = "El precio mínimo no puede ser negativo")
+    private Integer minPrice;
+
+    @Schema(description = "Precio máximo (inclusive) de los productos a modificar", example = "1000000")
+    @PositiveOrZero(message = "El precio máximo no puede ser negativo")
+    private Integer maxPrice;
+}
@@ -0,0 +1,38 @@
+package com.linktic.ms_stockflow_products.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.util.Date;
+
+/**
+ * Producto archivado (tabla products_archive). Lo escribe únicamente el archivador con SQL nativo;
+ * desde JPA solo se consulta para responder lecturas por código.
+ */
+@Entity
+@Immutable
+@Data
+@EqualsAndHashCode(callSuper = false)
+@NoArgsConstructor(access = AccessLevel.PACKAGE)
+@Table(name = "products_archive", schema = "public")
+public class ArchivedProduct extends GeneralEntityAudit {
+    @Id
+    @Column(name = "product_code", updatable = false)
+    private Integer productCode;
+
+    @Column(name = "name", updatable = false)
+    private String name;
+
+    @Column(name = "description", updatable = false)
+    private String description;
+
+    @Column(name = "price", updatable = false)
+    private Integer price;
+
+    @Column(name = "active", updatable = false)
+    private Boolean active;
+
+    @Column(name = "archived_at", updatable = false)
+    private Date archivedAt;
+}
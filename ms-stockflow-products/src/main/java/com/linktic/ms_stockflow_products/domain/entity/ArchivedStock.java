@@ -0,0 +1,31 @@
+package com.linktic.ms_stockflow_products.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.util.Date;
+
+/**
+ * Stock de un producto archivado (tabla stock_archive), de solo lectura.
+ */
+@Entity
+@Immutable
+@Data
+@EqualsAndHashCode(callSuper = false)
+@NoArgsConstructor(access = AccessLevel.PACKAGE)
+@Table(name = "stock_archive", schema = "public")
+public class ArchivedStock extends GeneralEntityAudit {
+    @Id
+    @Column(name = "stock_code", updatable = false)
+    private Integer stockCode;
+
+    @Column(name = "product_code", updatable = false)
+    private Integer productCode;
+
+    @Column(name = "quantity", updatable = false)
+    private Integer quantity;
+
+    @Column(name = "archived_at", updatable = false)
+    private Date archivedAt;
+}
@@ -0,0 +1,54 @@
+package com.linktic.ms_stockflow_products.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Trabajo de reprecio masivo (tabla repricing_jobs). El identificador se asigna en la aplicación
+ * para que, en modo particionado, el mismo trabajo se registre en cada shard con su propio avance.
+ */
+@Entity
+@Data
+@EqualsAndHashCode(callSuper = false)
+@Builder(toBuilder = true)
+@AllArgsConstructor(access = AccessLevel.PUBLIC)
+@NoArgsConstructor(access = AccessLevel.PACKAGE)
+@Table(name = "repricing_jobs", schema = "public")
+public class RepricingJob extends GeneralEntityAudit {
+    @Id
+    @Column(name = "job_id", updatable = false)
+    private UUID jobId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "rule_type", updatable = false)
+    private RepricingRuleType ruleType;
+
+    @Column(name = "rule_value", updatable = false)
+    private BigDecimal ruleValue;
+
+    @Column(name = "active_filter", updatable = false)
+    private Boolean activeFilter;
+
+    @Column(name = "min_price", updatable = false)
+    private Integer minPrice;
+
+    @Column(name = "max_price", updatable = false)
+    private Integer maxPrice;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    private RepricingJobStatus status;
+
+    @Column(name = "error_message")
+    private String errorMessage;
+
+    @Column(name = "started_at")
+    private Date startedAt;
+
+    @Column(name = "finished_at")
+    private Date finishedAt;
+}
@@ -0,0 +1,43 @@
+package com.linktic.ms_stockflow_products.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.UUID;
+
+/**
+ * Rango de product_code de un trabajo de reprecio (tabla repricing_job_ranges). {@code nextCode} es el
+ * primer código aún no procesado y avanza en la misma transacción que cada lote de precios.
+ */
+@Entity
+@Data
+@EqualsAndHashCode(callSuper = false)
+@Builder(toBuilder = true)
+@AllArgsConstructor(access = AccessLevel.PUBLIC)
+@NoArgsConstructor(access = AccessLevel.PACKAGE)
+@Table(name = "repricing_job_ranges", schema = "public")
+public class RepricingJobRange extends GeneralEntityAudit {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "range_id", updatable = false)
+    private Long rangeId;
+
+    @Column(name = "job_id", updatable = false)
+    private UUID jobId;
+
+    @Column(name = "from_code", updatable = false)
+    private Integer fromCode;
+
+    @Column(name = "to_code", updatable = false)
+    private Integer toCode;
+
+    @Column(name = "next_code")
+    private Integer nextCode;
+
+    @Column(name = "products_updated")
+    private Long productsUpdated;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    private RepricingJobStatus status;
+}
@@ -0,0 +1,7 @@
+package com.linktic.ms_stockflow_products.domain.entity;
+
+public enum RepricingJobStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
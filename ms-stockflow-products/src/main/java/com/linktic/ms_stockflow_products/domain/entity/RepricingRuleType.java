@@ -0,0 +1,9 @@
+package com.linktic.ms_stockflow_products.domain.entity;
+
+/**
+ * Regla de un trabajo de reprecio: porcentaje sobre el precio actual o incremento fijo
+ */
+public enum RepricingRuleType {
+    PERCENTAGE,
+    FIXED
+}
@@ -0,0 +1,27 @@
+package com.linktic.ms_stockflow_products.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Mapeo de solo lectura de la tabla stock, que pertenece al microservicio de stocks.
+ * Se usa únicamente para consultar la disponibilidad junto con el producto en una sola consulta.
+ */
+@Entity
+@Immutable
+@Data
+@EqualsAndHashCode(callSuper = false)
+@NoArgsConstructor(access = AccessLevel.PACKAGE)
+@Table(name = "stock", schema = "public")
+public class Stock extends GeneralEntityAudit {
+    @Id
+    @Column(name = "stock_code", updatable = false)
+    private Integer stockCode;
+
+    @Column(name = "product_code", updatable = false)
+    private Integer productCode;
+
+    @Column(name = "quantity", updatable = false)
+    private Integer quantity;
+}
@@ -0,0 +1,66 @@
+package com.linktic.ms_stockflow_products.domain.repository;
+
+import com.linktic.ms_stockflow_products.domain.entity.ArchivedProduct;
+import com.linktic.ms_stockflow_products.domain.repository.projection.ProductAvailabilityRow;
+import com.linktic.ms_stockflow_products.domain.repository.projection.ProductStateRow;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface ArchivedProductRepository extends CrudRepository<ArchivedProduct, Integer> {
+    // SQL nativo por la misma razón que ProductRepository.NATIVE_AVAILABILITY_SELECT
+    String AVAILABILITY_SELECT = "SELECT p.product_code AS \"productCode\", p.name AS \"name\", " +
+            "p.description AS \"description\", p.price AS \"price\", p.active AS \"active\", " +
+            "s.quantity AS \"quantity\", p.created_at AS \"createdAt\", p.updated_at AS \"updatedAt\" " +
+            "FROM products_archive p LEFT JOIN stock_archive s ON s.product_code = p.product_code ";
+
+    // Obtener producto archivado por código
+    ArchivedProduct findByProductCode(Integer productCode);
+
+    // Producto archivado con su stock archivado
+    @Query(value = AVAILABILITY_SELECT + "WHERE p.product_code = :productCode", nativeQuery = true)
+    ProductAvailabilityRow findAvailabilityByProductCode(@Param("productCode") Integer productCode);
+
+    // Varios productos archivados con su stock archivado
+    @Query(value = AVAILABILITY_SELECT + "WHERE p.product_code IN :productCodes", nativeQuery = true)
+    List<ProductAvailabilityRow> findAvailabilityByProductCodeIn(@Param("productCodes") Collection<Integer> productCodes);
+
+    /**
+     * Devuelve un producto archivado a products, con su stock a stock, en una sola sentencia (la inversa de
+     * {@link ProductRepository#archiveInactiveBatch}). El stock archivado se elimina en cascada. Debe
+     * ejecutarse dentro de una transacción de escritura.
+     * @return precio y estado del producto restaurado, o {@code null} si el código no está archivado
+     */
+    @Query(value = "WITH moved AS (" +
+            "    DELETE FROM products_archive WHERE product_code = :productCode" +
+            "    RETURNING product_code, name, description, price, active, created_at, updated_at" +
+            "), restored AS (" +
+            "    INSERT INTO products (product_code, name, description, price, active, created_at, updated_at)" +
+            "    SELECT product_code, name, description, price, active, created_at, updated_at FROM moved" +
+            "    RETURNING product_code, price, active" +
+            "), restored_stock AS (" +
+            "    INSERT INTO stock (stock_code, product_code, quantity, created_at, updated_at)" +
+            "    SELECT s.stock_code, s.product_code, s.quantity, s.created_at, s.updated_at" +
+            "    FROM stock_archive s JOIN moved m ON m.product_code = s.product_code" +
+            ") " +
+            "SELECT product_code AS \"productCode\", price AS \"price\", active AS \"active\" FROM restored",
+            nativeQuery = true)
+    ProductStateRow restore(@Param("productCode") Integer productCode);
+
+    // Mayor código archivado
+    @Query("SELECT MAX(p.productCode) FROM ArchivedProduct p")
+    Integer findMaxProductCode();
+
+    // Todos los códigos archivados, leídos con un cursor por bloques; requiere una transacción abierta
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "10000"))
+    @Query("SELECT p.productCode FROM ArchivedProduct p")
+    Stream<Integer> streamAllProductCodes();
+}
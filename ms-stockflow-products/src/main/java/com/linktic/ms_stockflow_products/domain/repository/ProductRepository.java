@@ -1,16 +1,173 @@
 package com.linktic.ms_stockflow_products.domain.repository;
 
 import com.linktic.ms_stockflow_products.domain.entity.Product;
+import com.linktic.ms_stockflow_products.domain.repository.projection.ArchivedProductRow;
+import com.linktic.ms_stockflow_products.domain.repository.projection.ProductAvailabilityRow;
+import com.linktic.ms_stockflow_products.domain.repository.projection.ProductCodeRange;
+import com.linktic.ms_stockflow_products.domain.repository.projection.ProductPriceCount;
+import com.linktic.ms_stockflow_products.domain.repository.projection.ProductStateRow;
+import com.linktic.ms_stockflow_products.domain.repository.projection.RepricedProductRow;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
 public interface ProductRepository extends CrudRepository<Product,Integer> {
+    String AVAILABILITY_SELECT = "SELECT p.productCode AS productCode, p.name AS name, p.description AS description, " +
+            "p.price AS price, p.active AS active, s.quantity AS quantity, p.createdAt AS createdAt, p.updatedAt AS updatedAt " +
+            "FROM Product p LEFT JOIN Stock s ON s.productCode = p.productCode ";
+    // Las búsquedas por código son SQL nativo: Spring Data vuelve a analizar el JPQL de cada @Query en cada
+    // llamada para aplicar el orden, lo que costaba más que la propia consulta
+    String NATIVE_AVAILABILITY_SELECT = "SELECT p.product_code AS \"productCode\", p.name AS \"name\", " +
+            "p.description AS \"description\", p.price AS \"price\", p.active AS \"active\", " +
+            "s.quantity AS \"quantity\", p.created_at AS \"createdAt\", p.updated_at AS \"updatedAt\" " +
+            "FROM products p LEFT JOIN stock s ON s.product_code = p.product_code ";
+
     // Obtener producto  por ID
     Product findByProductCode(Integer productCode);
 
     // Listar todos los productos (activos e inactivos) con paginación
     Page<Product> findAll(Pageable pageable);
+
+    // Listar solo activos o solo inactivos (los activos usan el índice parcial idx_products_active_code)
+    Page<Product> findByActive(Boolean active, Pageable pageable);
+
+    // Recalcular las estadísticas del catálogo en una sola pasada
+    @Query("SELECT p.price AS price, p.active AS active, COUNT(p) AS total " +
+            "FROM Product p GROUP BY p.price, p.active")
+    List<ProductPriceCount> countByPriceAndActive();
+
+    // Producto con su stock en una sola consulta
+    @Query(value = NATIVE_AVAILABILITY_SELECT + "WHERE p.product_code = :productCode", nativeQuery = true)
+    ProductAvailabilityRow findAvailabilityByProductCode(@Param("productCode") Integer productCode);
+
+    // Varios productos con su stock en una sola consulta
+    @Query(value = NATIVE_AVAILABILITY_SELECT + "WHERE p.product_code IN :productCodes", nativeQuery = true)
+    List<ProductAvailabilityRow> findAvailabilityByProductCodeIn(@Param("productCodes") Collection<Integer> productCodes);
+
+    // Listado paginado de productos con su stock
+    @Query(value = AVAILABILITY_SELECT,
+            countQuery = "SELECT COUNT(p) FROM Product p")
+    Page<ProductAvailabilityRow> findAllAvailability(Pageable pageable);
+
+    /**
+     * Mueve un lote de productos inactivos sin cambios desde {@code cutoff} a products_archive, con su stock
+     * a stock_archive, en una sola sentencia. Las filas bloqueadas por otra transacción se omiten y se
+     * archivan en una ejecución posterior. Debe ejecutarse dentro de una transacción de escritura.
+     */
+    @Query(value = "WITH candidates AS (" +
+            "    SELECT product_code FROM products" +
+            "    WHERE active = false AND updated_at < :cutoff" +
+            "    ORDER BY updated_at LIMIT :batchSize" +
+            "    FOR UPDATE SKIP LOCKED" +
+            "), moved AS (" +
+            "    DELETE FROM products p USING candidates c WHERE p.product_code = c.product_code" +
+            "    RETURNING p.*" +
+            "), archived AS (" +
+            "    INSERT INTO products_archive (product_code, name, description, price, active, created_at, updated_at)" +
+            "    SELECT product_code, name, description, price, active, created_at, updated_at FROM moved" +
+            "    RETURNING product_code, price, active" +
+            "), archived_stock AS (" +
+            "    INSERT INTO stock_archive (stock_code, product_code, quantity, created_at, updated_at)" +
+            "    SELECT s.stock_code, s.product_code, s.quantity, s.created_at, s.updated_at" +
+            "    FROM stock s JOIN candidates c ON c.product_code = s.product_code" +
+            ") " +
+            "SELECT product_code AS \"productCode\", price AS \"price\", active AS \"active\" FROM archived",
+            nativeQuery = true)
+    List<ArchivedProductRow> archiveInactiveBatch(@Param("cutoff") Date cutoff, @Param("batchSize") int batchSize);
+
+    // Menor y mayor código del catálogo, para dividirlo en rangos
+    @Query("SELECT MIN(p.productCode) AS minCode, MAX(p.productCode) AS maxCode FROM Product p")
+    ProductCodeRange findCodeRange();
+
+    /**
+     * Bloquea los siguientes {@code chunkSize} productos del rango y devuelve el último código del lote,
+     * o {@code null} si el rango ya no tiene productos. Debe ejecutarse dentro de una transacción de escritura.
+     */
+    @Query(value = "SELECT MAX(product_code) FROM (" +
+            "    SELECT product_code FROM products" +
+            "    WHERE product_code BETWEEN :fromCode AND :toCode" +
+            "    ORDER BY product_code LIMIT :chunkSize" +
+            "    FOR UPDATE" +
+            ") chunk",
+            nativeQuery = true)
+    Integer lockRepricingChunk(@Param("fromCode") Integer fromCode,
+                               @Param("toCode") Integer toCode,
+                               @Param("chunkSize") int chunkSize);
+
+    /**
+     * Aplica una regla de reprecio a los productos del rango que cumplen los filtros, en una sola sentencia,
+     * y devuelve el precio anterior y el nuevo de cada uno. El precio resultante se acota a [0, 2147483647].
+     * Las filas deben estar bloqueadas previamente con {@link #lockRepricingChunk}.
+     */
+    @Query(value = "UPDATE products p SET price = CAST(GREATEST(0, LEAST(2147483647," +
+            "    CASE WHEN :percentage THEN ROUND(o.price * (100 + :ruleValue) / 100) ELSE o.price + :ruleValue END" +
+            ")) AS INTEGER) " +
+            "FROM products o " +
+            "WHERE o.product_code = p.product_code" +
+            "    AND p.product_code BETWEEN :fromCode AND :toCode" +
+            "    AND o.price BETWEEN :minPrice AND :maxPrice" +
+            "    AND ((o.active IS NOT FALSE AND :includeActive) OR (o.active = false AND :includeInactive)) " +
+            "RETURNING o.price AS \"oldPrice\", p.price AS \"newPrice\", p.active AS \"active\"",
+            nativeQuery = true)
+    List<RepricedProductRow> repriceRange(@Param("fromCode") Integer fromCode,
+                                          @Param("toCode") Integer toCode,
+                                          @Param("percentage") boolean percentage,
+                                          @Param("ruleValue") BigDecimal ruleValue,
+                                          @Param("minPrice") int minPrice,
+                                          @Param("maxPrice") int maxPrice,
+                                          @Param("includeActive") boolean includeActive,
+                                          @Param("includeInactive") boolean includeInactive);
+
+    /**
+     * Bloquea los productos en orden de código, para que dos escrituras concurrentes no se interbloqueen,
+     * y devuelve su precio y estado actuales. Debe ejecutarse dentro de una transacción de escritura.
+     */
+    @Query(value = "SELECT product_code AS \"productCode\", price AS \"price\", active AS \"active\" FROM products" +
+            "    WHERE product_code IN (:productCodes)" +
+            "    ORDER BY product_code" +
+            "    FOR UPDATE",
+            nativeQuery = true)
+    List<ProductStateRow> lockForUpdate(@Param("productCodes") Collection<Integer> productCodes);
+
+    /**
+     * Aplica a varios productos, en una sola sentencia, los cambios agrupados de cada uno. Los arreglos
+     * van alineados por posición y un valor {@code null} conserva el valor actual del campo.
+     * Las filas deben estar bloqueadas previamente con {@link #lockForUpdate}.
+     */
+    @Query(value = "UPDATE products p SET" +
+            "    name = COALESCE(v.name, p.name)," +
+            "    description = COALESCE(v.description, p.description)," +
+            "    price = COALESCE(v.price, p.price)," +
+            "    active = COALESCE(v.active, p.active) " +
+            "FROM unnest(CAST(:productCodes AS INTEGER[]), CAST(:names AS VARCHAR[]), CAST(:descriptions AS TEXT[])," +
+            "    CAST(:prices AS INTEGER[]), CAST(:actives AS BOOLEAN[])) AS v(product_code, name, description, price, active) " +
+            "WHERE p.product_code = v.product_code " +
+            "RETURNING p.*",
+            nativeQuery = true)
+    List<Product> applyMergedUpdates(@Param("productCodes") Integer[] productCodes,
+                                     @Param("names") String[] names,
+                                     @Param("descriptions") String[] descriptions,
+                                     @Param("prices") Integer[] prices,
+                                     @Param("actives") Boolean[] actives);
+
+    // Mayor código de los productos creados antes del instante indicado (inserciones ya confirmadas)
+    @Query("SELECT MAX(p.productCode) FROM Product p WHERE p.createdAt < :createdBefore")
+    Integer findMaxProductCodeCreatedBefore(@Param("createdBefore") Date createdBefore);
+
+    // Todos los códigos, leídos con un cursor por bloques; requiere una transacción abierta mientras se consume
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "10000"))
+    @Query("SELECT p.productCode FROM Product p")
+    Stream<Integer> streamAllProductCodes();
 }
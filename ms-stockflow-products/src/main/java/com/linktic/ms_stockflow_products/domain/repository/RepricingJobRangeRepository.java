@@ -0,0 +1,30 @@
+package com.linktic.ms_stockflow_products.domain.repository;
+
+import com.linktic.ms_stockflow_products.domain.entity.RepricingJobRange;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface RepricingJobRangeRepository extends CrudRepository<RepricingJobRange, Long> {
+
+    // Rangos de un trabajo
+    List<RepricingJobRange> findByJobId(UUID jobId);
+
+    /**
+     * Bloquea el rango para procesar un lote. Si otra instancia lo tiene bloqueado devuelve {@code null}
+     * en lugar de esperar (timeout -2 = SKIP LOCKED), para que un rango nunca se procese dos veces a la vez.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT r FROM RepricingJobRange r WHERE r.rangeId = :rangeId")
+    RepricingJobRange lockById(@Param("rangeId") Long rangeId);
+}
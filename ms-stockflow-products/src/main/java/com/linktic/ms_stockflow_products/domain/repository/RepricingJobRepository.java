@@ -0,0 +1,19 @@
+package com.linktic.ms_stockflow_products.domain.repository;
+
+import com.linktic.ms_stockflow_products.domain.entity.RepricingJob;
+import com.linktic.ms_stockflow_products.domain.entity.RepricingJobStatus;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface RepricingJobRepository extends CrudRepository<RepricingJob, UUID> {
+
+    // Trabajos en un estado dado (al arrancar se reanudan los RUNNING)
+    List<RepricingJob> findByStatus(RepricingJobStatus status);
+
+    // Últimos trabajos creados
+    List<RepricingJob> findTop20ByOrderByCreatedAtDesc();
+}
@@ -0,0 +1,13 @@
+package com.linktic.ms_stockflow_products.domain.repository.projection;
+
+/**
+ * Producto movido a products_archive en un lote del archivador.
+ */
+public interface ArchivedProductRow {
+
+    Integer getProductCode();
+
+    Integer getPrice();
+
+    Boolean getActive();
+}
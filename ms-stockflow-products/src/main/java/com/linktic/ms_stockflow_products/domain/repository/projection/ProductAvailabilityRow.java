@@ -0,0 +1,25 @@
+package com.linktic.ms_stockflow_products.domain.repository.projection;
+
+import java.util.Date;
+
+/**
+ * Producto junto con la cantidad de su registro de stock; la cantidad es nula si el producto no tiene stock.
+ */
+public interface ProductAvailabilityRow {
+
+    Integer getProductCode();
+
+    String getName();
+
+    String getDescription();
+
+    Integer getPrice();
+
+    Boolean getActive();
+
+    Integer getQuantity();
+
+    Date getCreatedAt();
+
+    Date getUpdatedAt();
+}
@@ -0,0 +1,11 @@
+package com.linktic.ms_stockflow_products.domain.repository.projection;
+
+/**
+ * Menor y mayor product_code de la tabla de productos ({@code null} si está vacía).
+ */
+public interface ProductCodeRange {
+
+    Integer getMinCode();
+
+    Integer getMaxCode();
+}
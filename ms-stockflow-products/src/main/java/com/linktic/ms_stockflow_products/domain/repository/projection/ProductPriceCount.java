@@ -0,0 +1,13 @@
+package com.linktic.ms_stockflow_products.domain.repository.projection;
+
+/**
+ * Cantidad de productos agrupados por precio y estado.
+ */
+public interface ProductPriceCount {
+
+    Integer getPrice();
+
+    Boolean getActive();
+
+    Long getTotal();
+}
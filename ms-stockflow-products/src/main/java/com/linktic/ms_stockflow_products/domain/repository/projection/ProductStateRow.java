@@ -0,0 +1,13 @@
+package com.linktic.ms_stockflow_products.domain.repository.projection;
+
+/**
+ * Precio y estado actuales de un producto bloqueado para actualizarlo.
+ */
+public interface ProductStateRow {
+
+    Integer getProductCode();
+
+    Integer getPrice();
+
+    Boolean getActive();
+}
@@ -0,0 +1,13 @@
+package com.linktic.ms_stockflow_products.domain.repository.projection;
+
+/**
+ * Producto modificado por un lote de reprecio, con el precio anterior y el nuevo.
+ */
+public interface RepricedProductRow {
+
+    Integer getOldPrice();
+
+    Integer getNewPrice();
+
+    Boolean getActive();
+}
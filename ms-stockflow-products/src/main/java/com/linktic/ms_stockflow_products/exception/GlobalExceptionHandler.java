@@ -8,6 +8,7 @@ import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.resource.NoResourceFoundException;
 
 import java.util.ArrayList;
 import java.util.Date;
@@ -17,22 +18,41 @@ import java.util.List;
 @Slf4j
 public class GlobalExceptionHandler {
 
+    // Listas de detalles inmutables compartidas por todas las respuestas; el cuerpo (mensaje, ruta y fecha)
+    // se construye en cada petición
+    private static final List<String> NOT_FOUND_DETAILS =
+            List.of("El producto solicitado no existe en el sistema");
+    private static final List<String> JOB_NOT_FOUND_DETAILS =
+            List.of("El trabajo de reprecio solicitado no existe en el sistema");
+    private static final List<String> ALREADY_EXISTS_DETAILS =
+            List.of("Ya existe un producto con el código proporcionado");
+    private static final List<String> ILLEGAL_ARGUMENT_DETAILS =
+            List.of("Los datos proporcionados no son válidos");
+    private static final List<String> ROUTE_NOT_FOUND_DETAILS =
+            List.of("La ruta solicitada no existe");
+    // Los errores inesperados no exponen su mensaje (puede incluir SQL o datos internos); queda en el log
+    private static final List<String> UNEXPECTED_DETAILS =
+            List.of("Error inesperado");
+
     @ExceptionHandler(ProductNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleProductNotFoundException(
             ProductNotFoundException ex,
             HttpServletRequest request) {
 
-        log.error("ProductNotFoundException: {}", ex.getMessage());
+        // Un código inexistente es un resultado habitual (p. ej. SKUs desconocidos del servicio de stocks)
+        log.debug("ProductNotFoundException: {}", ex.getMessage());
+
+        return buildResponse(HttpStatus.NOT_FOUND, ex.getMessage(), NOT_FOUND_DETAILS, request);
+    }
 
-        ErrorResponse errorResponse = ErrorResponse.builder()
-                .status(HttpStatus.NOT_FOUND.value())
-                .message(ex.getMessage())
-                .details(List.of("El producto solicitado no existe en el sistema"))
-                .timestamp(new Date())
-                .path(request.getRequestURI())
-                .build();
+    @ExceptionHandler(RepricingJobNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleRepricingJobNotFoundException(
+            RepricingJobNotFoundException ex,
+            HttpServletRequest request) {
 
-        return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+        log.debug("RepricingJobNotFoundException: {}", ex.getMessage());
+
+        return buildResponse(HttpStatus.NOT_FOUND, ex.getMessage(), JOB_NOT_FOUND_DETAILS, request);
     }
 
     @ExceptionHandler(ProductAlreadyExistsException.class)
@@ -40,17 +60,9 @@ public class GlobalExceptionHandler {
             ProductAlreadyExistsException ex,
             HttpServletRequest request) {
 
-        log.error("ProductAlreadyExistsException: {}", ex.getMessage());
-
-        ErrorResponse errorResponse = ErrorResponse.builder()
-                .status(HttpStatus.CONFLICT.value())
-                .message(ex.getMessage())
-                .details(List.of("Ya existe un producto con el código proporcionado"))
-                .timestamp(new Date())
-                .path(request.getRequestURI())
-                .build();
+        log.warn("ProductAlreadyExistsException: {}", ex.getMessage());
 
-        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+        return buildResponse(HttpStatus.CONFLICT, ex.getMessage(), ALREADY_EXISTS_DETAILS, request);
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
@@ -58,7 +70,7 @@ public class GlobalExceptionHandler {
             MethodArgumentNotValidException ex,
             HttpServletRequest request) {
 
-        log.error("MethodArgumentNotValidException: Error de validación");
+        log.warn("MethodArgumentNotValidException: Error de validación");
 
         List<String> errors = new ArrayList<>();
         ex.getBindingResult().getAllErrors().forEach((error) -> {
@@ -67,15 +79,8 @@ public class GlobalExceptionHandler {
             errors.add(fieldName + ": " + errorMessage);
         });
 
-        ErrorResponse errorResponse = ErrorResponse.builder()
-                .status(HttpStatus.BAD_REQUEST.value())
-                .message("Error de validación en los datos proporcionados")
-                .details(errors)
-                .timestamp(new Date())
-                .path(request.getRequestURI())
-                .build();
-
-        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        return buildResponse(HttpStatus.BAD_REQUEST,
+                "Error de validación en los datos proporcionados", errors, request);
     }
 
     @ExceptionHandler(IllegalArgumentException.class)
@@ -83,17 +88,20 @@ public class GlobalExceptionHandler {
             IllegalArgumentException ex,
             HttpServletRequest request) {
 
-        log.error("IllegalArgumentException: {}", ex.getMessage());
+        log.warn("IllegalArgumentException: {}", ex.getMessage());
 
-        ErrorResponse errorResponse = ErrorResponse.builder()
-                .status(HttpStatus.BAD_REQUEST.value())
-                .message(ex.getMessage())
-                .details(List.of("Los datos proporcionados no son válidos"))
-                .timestamp(new Date())
-                .path(request.getRequestURI())
-                .build();
+        return buildResponse(HttpStatus.BAD_REQUEST, ex.getMessage(), ILLEGAL_ARGUMENT_DETAILS, request);
+    }
+
+    // Rutas inexistentes, incluidos los endpoints de Actuator no expuestos: 404 y no un error inesperado
+    @ExceptionHandler(NoResourceFoundException.class)
+    public ResponseEntity<ErrorResponse> handleNoResourceFoundException(
+            NoResourceFoundException ex,
+            HttpServletRequest request) {
 
-        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        log.debug("NoResourceFoundException: {}", ex.getMessage());
+
+        return buildResponse(HttpStatus.NOT_FOUND, "Recurso no encontrado", ROUTE_NOT_FOUND_DETAILS, request);
     }
 
     @ExceptionHandler(RuntimeException.class)
@@ -103,15 +111,8 @@ public class GlobalExceptionHandler {
 
         log.error("RuntimeException: {}", ex.getMessage(), ex);
 
-        ErrorResponse errorResponse = ErrorResponse.builder()
-                .status(HttpStatus.INTERNAL_SERVER_ERROR.value())
-                .message("Error al procesar la solicitud")
-                .details(List.of(ex.getMessage() != null ? ex.getMessage() : "Error inesperado"))
-                .timestamp(new Date())
-                .path(request.getRequestURI())
-                .build();
-
-        return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
+        return buildResponse(HttpStatus.INTERNAL_SERVER_ERROR,
+                "Error al procesar la solicitud", UNEXPECTED_DETAILS, request);
     }
 
     @ExceptionHandler(Exception.class)
@@ -121,14 +122,16 @@ public class GlobalExceptionHandler {
 
         log.error("Exception: {}", ex.getMessage(), ex);
 
-        ErrorResponse errorResponse = ErrorResponse.builder()
-                .status(HttpStatus.INTERNAL_SERVER_ERROR.value())
-                .message("Error interno del servidor")
-                .details(List.of(ex.getMessage() != null ? ex.getMessage() : "Error inesperado"))
-                .timestamp(new Date())
-                .path(request.getRequestURI())
-                .build();
+        return buildResponse(HttpStatus.INTERNAL_SERVER_ERROR,
+                "Error interno del servidor", UNEXPECTED_DETAILS, request);
+    }
 
-        return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
+    private static ResponseEntity<ErrorResponse> buildResponse(HttpStatus status,
+                                                               String message,
+                                                               List<String> details,
+                                                               HttpServletRequest request) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                status.value(), message, details, new Date(), request.getRequestURI());
+        return new ResponseEntity<>(errorResponse, status);
     }
 }
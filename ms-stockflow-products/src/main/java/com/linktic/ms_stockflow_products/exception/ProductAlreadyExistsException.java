@@ -1,12 +1,15 @@
 package com.linktic.ms_stockflow_products.exception;
 
+/**
+ * Excepción de dominio sin stack trace (ver {@link ProductNotFoundException}).
+ */
 public class ProductAlreadyExistsException extends RuntimeException {
 
     public ProductAlreadyExistsException(Integer productCode) {
-        super("El producto con código " + productCode + " ya existe");
+        super("El producto con código " + productCode + " ya existe", null, false, false);
     }
 
     public ProductAlreadyExistsException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
@@ -1,12 +1,16 @@
 package com.linktic.ms_stockflow_products.exception;
 
+/**
+ * Excepción de dominio sin stack trace: un código inexistente es un resultado esperado de la consulta,
+ * no un error del servicio, por lo que no se paga el costo de capturar la pila en cada búsqueda fallida.
+ */
 public class ProductNotFoundException extends RuntimeException {
 
     public ProductNotFoundException(Integer productCode) {
-        super("Producto con código " + productCode + " no encontrado");
+        super("Producto con código " + productCode + " no encontrado", null, false, false);
     }
 
     public ProductNotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
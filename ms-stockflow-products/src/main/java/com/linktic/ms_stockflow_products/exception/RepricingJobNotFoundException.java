@@ -0,0 +1,10 @@
+package com.linktic.ms_stockflow_products.exception;
+
+import java.util.UUID;
+
+public class RepricingJobNotFoundException extends RuntimeException {
+
+    public RepricingJobNotFoundException(UUID jobId) {
+        super("Trabajo de reprecio " + jobId + " no encontrado", null, false, false);
+    }
+}
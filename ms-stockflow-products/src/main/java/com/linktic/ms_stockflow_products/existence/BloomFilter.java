@@ -0,0 +1,118 @@
+package com.linktic.ms_stockflow_products.existence;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom de códigos enteros. Responde "puede existir" para todo código agregado y, con una
+ * probabilidad acotada por {@code falsePositiveRate}, también para códigos nunca agregados; un
+ * "no existe" es siempre definitivo.
+ * <p>
+ * Para {@code n} códigos y una tasa de falsos positivos {@code p} usa {@code m = -n ln(p) / ln(2)^2} bits
+ * (unos 9,6 bits por código con p = 1 %) y {@code k = (m / n) ln(2)} posiciones por código, derivadas de
+ * un único hash de 64 bits con doble hashing ({@code h1 + i * h2}). Los bits viven en un
+ * {@link AtomicLongArray}, por lo que se puede agregar y consultar concurrentemente sin bloqueos.
+ */
+public class BloomFilter {
+
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashFunctions;
+    private final AtomicLong insertions = new AtomicLong();
+
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("La cantidad esperada de códigos debe ser positiva: " + expectedInsertions);
+        }
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("La tasa de falsos positivos debe estar entre 0 y 1: " + falsePositiveRate);
+        }
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (LN2 * LN2));
+        int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (bits + 63) >>> 6));
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = (long) wordCount << 6;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * LN2));
+    }
+
+    public void put(int code) {
+        long hash = mix(code);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashFunctions; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+            setBit(bit);
+        }
+        insertions.incrementAndGet();
+    }
+
+    public boolean mightContain(int code) {
+        long hash = mix(code);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashFunctions; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return tasa de falsos positivos esperada con los códigos agregados hasta ahora:
+     * {@code (1 - e^(-k n / m))^k}
+     */
+    public double expectedFalsePositiveRate() {
+        return Math.pow(1 - Math.exp(-hashFunctions * (double) insertions.get() / bitCount), hashFunctions);
+    }
+
+    public long bitCount() {
+        return bitCount;
+    }
+
+    public int hashFunctions() {
+        return hashFunctions;
+    }
+
+    /**
+     * @return códigos agregados (con repeticiones)
+     */
+    public long insertions() {
+        return insertions.get();
+    }
+
+    /**
+     * @return memoria ocupada por el arreglo de bits
+     */
+    public long memoryBytes() {
+        return bitCount >>> 3;
+    }
+
+    private void setBit(long bit) {
+        int index = (int) (bit >>> 6);
+        long mask = 1L << bit;
+        long word;
+        do {
+            word = words.get(index);
+            if ((word & mask) != 0) {
+                return;
+            }
+        } while (!words.compareAndSet(index, word, word | mask));
+    }
+
+    /**
+     * Finalizador de MurmurHash3 (fmix64): los códigos son consecutivos, así que hay que dispersarlos
+     * en los 64 bits antes de derivar las posiciones
+     */
+    private static long mix(int code) {
+        long h = code;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,38 @@
+package com.linktic.ms_stockflow_products.existence;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "stockflow.existence-filter")
+public class ExistenceFilterProperties {
+
+    /**
+     * Descarta en memoria las búsquedas de códigos que nunca existieron
+     */
+    private boolean enabled = true;
+
+    /**
+     * Capacidad mínima del filtro; si el catálogo es mayor, se dimensiona según el catálogo
+     */
+    private long expectedInsertions = 1_000_000;
+
+    /**
+     * Tasa de falsos positivos objetivo (códigos inexistentes que igual se consultan en la base de datos)
+     */
+    private double falsePositiveRate = 0.01;
+
+    /**
+     * Intervalo entre reconstrucciones del filtro, que incorporan los productos creados por otras instancias
+     * y lo redimensionan según el tamaño del catálogo
+     */
+    private Duration refreshInterval = Duration.ofMinutes(10);
+
+    /**
+     * Antigüedad mínima de un producto para que su código cuente como confirmado al construir el filtro;
+     * debe superar la duración de la transacción de creación más lenta
+     */
+    private Duration gracePeriod = Duration.ofMinutes(1);
+}
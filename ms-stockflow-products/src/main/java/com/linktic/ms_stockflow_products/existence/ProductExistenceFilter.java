@@ -0,0 +1,245 @@
+package com.linktic.ms_stockflow_products.existence;
+
+import com.linktic.ms_stockflow_products.domain.repository.ArchivedProductRepository;
+import com.linktic.ms_stockflow_products.domain.repository.ProductRepository;
+import com.linktic.ms_stockflow_products.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Stream;
+
+/**
+ * Índice en memoria de los códigos de producto existentes (tabla caliente y archivo), para responder sin ir
+ * a la base de datos las búsquedas de códigos que nunca existieron. Un "no existe" del filtro es definitivo;
+ * un "puede existir" se confirma con la consulta habitual.
+ * <p>
+ * El filtro se construye al arrancar recorriendo los códigos con un cursor, antes del calentamiento y de que
+ * la instancia pase a {@code ACCEPTING_TRAFFIC}, y se reconstruye cada {@code refresh-interval}. Los productos
+ * creados por esta instancia se agregan al crearse. Los códigos mayores que el umbral de la última construcción
+ * (el mayor código creado hace más de {@code grace-period}) siempre "pueden existir": así los productos creados
+ * por otras instancias, o fuera del servicio, se encuentran aunque todavía no estén en el filtro. Mientras el
+ * filtro no esté construido, o si está deshabilitado, todo código "puede existir".
+ */
+@Component
+@Slf4j
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ProductExistenceFilter implements ApplicationRunner {
+
+    // Margen para los productos creados entre reconstrucciones sin superar la tasa de falsos positivos
+    private static final double GROWTH_HEADROOM = 1.25;
+
+    private final ProductRepository productRepository;
+    private final ArchivedProductRepository archivedProductRepository;
+    private final ObjectProvider<ShardRouter> shardRouter;
+    private final ExistenceFilterProperties properties;
+    private final TransactionTemplate readOnlyTransaction;
+
+    // Filtro vigente junto con el código hasta el que sus respuestas son definitivas; null hasta construirlo
+    private volatile Snapshot snapshot;
+    // Filtro en construcción: los productos creados durante el recorrido se agregan también a él
+    private volatile BloomFilter building;
+    // Códigos agregados desde la última construcción, que el recorrido en curso podría no haber visto
+    private final Queue<Integer> addedSinceBuild = new ConcurrentLinkedQueue<>();
+
+    private final Counter definiteMisses;
+    private final Counter possibleHits;
+    private final Counter falsePositives;
+
+    public ProductExistenceFilter(ProductRepository productRepository,
+                                  ArchivedProductRepository archivedProductRepository,
+                                  ObjectProvider<ShardRouter> shardRouter,
+                                  ExistenceFilterProperties properties,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.archivedProductRepository = archivedProductRepository;
+        this.shardRouter = shardRouter;
+        this.properties = properties;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+
+        this.definiteMisses = Counter.builder("stockflow.existence.checks")
+                .description("Consultas de existencia resueltas por el filtro")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.possibleHits = Counter.builder("stockflow.existence.checks")
+                .description("Consultas de existencia resueltas por el filtro")
+                .tag("result", "maybe")
+                .register(meterRegistry);
+        this.falsePositives = Counter.builder("stockflow.existence.false.positives")
+                .description("Códigos que el filtro dejó pasar y no existían")
+                .register(meterRegistry);
+        gauge(meterRegistry, "stockflow.existence.memory", "Memoria del arreglo de bits del filtro", "bytes",
+                BloomFilter::memoryBytes);
+        gauge(meterRegistry, "stockflow.existence.entries", "Códigos agregados al filtro", null,
+                BloomFilter::insertions);
+        gauge(meterRegistry, "stockflow.existence.expected.fpp", "Tasa de falsos positivos esperada del filtro", null,
+                BloomFilter::expectedFalsePositiveRate);
+    }
+
+    /**
+     * @return false solo si el código con seguridad no existe
+     */
+    public boolean mightExist(Integer productCode) {
+        Snapshot current = snapshot;
+        if (current == null || productCode == null || productCode > current.threshold()) {
+            return true;
+        }
+        if (current.filter().mightContain(productCode)) {
+            possibleHits.increment();
+            return true;
+        }
+        definiteMisses.increment();
+        return false;
+    }
+
+    /**
+     * Agrega un producto recién creado por esta instancia
+     */
+    public void add(Integer productCode) {
+        if (!properties.isEnabled() || productCode == null) {
+            return;
+        }
+        // Primero la cola y después el filtro en construcción: si la reconstrucción ya vació la cola, este
+        // hilo ve el nuevo filtro y lo agrega directamente
+        addedSinceBuild.add(productCode);
+        BloomFilter next = building;
+        if (next != null) {
+            next.put(productCode);
+        }
+        Snapshot current = snapshot;
+        if (current != null) {
+            current.filter().put(productCode);
+        }
+    }
+
+    /**
+     * Registra un código que el filtro dejó pasar y no se encontró en la base de datos
+     */
+    public void recordFalsePositives(int count) {
+        if (count > 0) {
+            falsePositives.increment(count);
+        }
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!properties.isEnabled()) {
+            log.info("Filtro de existencia de productos deshabilitado");
+            return;
+        }
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            // Sin filtro todas las búsquedas van a la base de datos: el servicio arranca igual
+            log.warn("No se pudo construir el filtro de existencia de productos: {}", e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${stockflow.existence-filter.refresh-interval:PT10M}",
+            initialDelayString = "${stockflow.existence-filter.refresh-interval:PT10M}")
+    public void refresh() {
+        if (properties.isEnabled()) {
+            rebuild();
+        }
+    }
+
+    synchronized void rebuild() {
+        long start = System.nanoTime();
+        long total = sumOverShards(this::countCodes);
+        long capacity = Math.max(properties.getExpectedInsertions(), (long) Math.ceil(total * GROWTH_HEADROOM));
+        BloomFilter next = new BloomFilter(capacity, properties.getFalsePositiveRate());
+
+        building = next;
+        Integer previouslyAdded;
+        while ((previouslyAdded = addedSinceBuild.poll()) != null) {
+            next.put(previouslyAdded);
+        }
+        try {
+            // En modo particionado cada shard se recorre en paralelo; el umbral es el menor de los shards,
+            // porque por encima de él algún shard puede tener códigos que el filtro no vio
+            int threshold = minOverShards(() -> scanCodes(next));
+            snapshot = new Snapshot(next, threshold);
+        } finally {
+            building = null;
+        }
+
+        log.info("Filtro de existencia construido en {} ms: {} códigos, {} bits, {} funciones hash, {} KB, fpp esperada {}",
+                Duration.ofNanos(System.nanoTime() - start).toMillis(), next.insertions(), next.bitCount(),
+                next.hashFunctions(), next.memoryBytes() / 1024, String.format("%.4f", next.expectedFalsePositiveRate()));
+    }
+
+    private long countCodes() {
+        return productRepository.count() + archivedProductRepository.count();
+    }
+
+    private int scanCodes(BloomFilter target) {
+        Integer threshold = readOnlyTransaction.execute(status -> {
+            // El umbral se toma antes del recorrido y solo con productos creados hace más de grace-period:
+            // con códigos IDENTITY una inserción más lenta puede confirmarse después que otra con código mayor
+            Date createdBefore = new Date(System.currentTimeMillis() - properties.getGracePeriod().toMillis());
+            int settledMaxCode = Math.max(
+                    Objects.requireNonNullElse(productRepository.findMaxProductCodeCreatedBefore(createdBefore), 0),
+                    Objects.requireNonNullElse(archivedProductRepository.findMaxProductCode(), 0));
+            try (Stream<Integer> codes = productRepository.streamAllProductCodes()) {
+                codes.forEach(target::put);
+            }
+            try (Stream<Integer> codes = archivedProductRepository.streamAllProductCodes()) {
+                codes.forEach(target::put);
+            }
+            return settledMaxCode;
+        });
+        return threshold != null ? threshold : 0;
+    }
+
+    private long sumOverShards(LongSupplier action) {
+        ShardRouter router = shardRouter.getIfAvailable();
+        if (router == null) {
+            return action.getAsLong();
+        }
+        return router.scatter(shard -> action.getAsLong()).stream().mapToLong(Long::longValue).sum();
+    }
+
+    private int minOverShards(IntSupplier action) {
+        ShardRouter router = shardRouter.getIfAvailable();
+        if (router == null) {
+            return action.getAsInt();
+        }
+        List<Integer> thresholds = router.scatter(shard -> action.getAsInt());
+        return thresholds.stream().mapToInt(Integer::intValue).min().orElse(0);
+    }
+
+    private void gauge(MeterRegistry meterRegistry, String name, String description, String unit,
+                       ToDoubleFunction<BloomFilter> value) {
+        Gauge.builder(name, this, filter -> {
+                    Snapshot current = filter.snapshot;
+                    return current != null ? value.applyAsDouble(current.filter()) : 0;
+                })
+                .description(description)
+                .baseUnit(unit)
+                .register(meterRegistry);
+    }
+
+    private record Snapshot(BloomFilter filter, int threshold) {
+    }
+}
@@ -0,0 +1,158 @@
+package com.linktic.ms_stockflow_products.profiling;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.Date;
+import java.util.Set;
+
+/**
+ * Administra una única grabación de Java Flight Recorder a la vez, acotada en duración y tamaño.
+ * La grabación se escribe en un archivo temporal al detenerse (manualmente o al cumplir su duración)
+ * y se resume la primera vez que se consulta; el archivo se conserva hasta la siguiente grabación.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FlightRecorderProfiler {
+
+    // Configuraciones incluidas en el JDK: "default" (~1 % de sobrecarga) y "profile" (~2 %, más muestras)
+    static final Set<String> PRESETS = Set.of("default", "profile");
+
+    // Eventos de los presets del JDK que pueden incluir secretos: variables de entorno, propiedades del
+    // sistema, argumentos de la JVM y líneas de comando de los procesos del host
+    static final Set<String> SENSITIVE_EVENTS = Set.of(
+            "jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty", "jdk.JVMInformation", "jdk.SystemProcess");
+
+    private final ProfilingProperties properties;
+
+    private Recording recording;
+    private Path recordingFile;
+    private String preset;
+    private Date startedAt;
+    private Duration duration;
+    private ProfilingSummary summary;
+
+    public synchronized ProfilingStatus start(String requestedPreset, Duration requestedDuration)
+            throws IOException, ParseException {
+        if (isRecording()) {
+            throw new IllegalStateException("Ya hay una grabación en curso");
+        }
+        String selectedPreset = requestedPreset != null ? requestedPreset : "default";
+        if (!PRESETS.contains(selectedPreset)) {
+            throw new IllegalArgumentException("Preset inválido: " + selectedPreset + ", se admite " + PRESETS);
+        }
+        Duration selectedDuration = requestedDuration != null ? requestedDuration : properties.getDefaultDuration();
+        if (selectedDuration.isNegative() || selectedDuration.isZero()
+                || selectedDuration.compareTo(properties.getMaxDuration()) > 0) {
+            throw new IllegalArgumentException("La duración debe estar entre 1 y "
+                    + properties.getMaxDuration().toSeconds() + " segundos");
+        }
+
+        discard();
+        Path destination = Files.createTempFile("stockflow-profiling-", ".jfr");
+        Recording newRecording = new Recording(Configuration.getConfiguration(selectedPreset));
+        newRecording.setName("stockflow-" + selectedPreset);
+        SENSITIVE_EVENTS.forEach(newRecording::disable);
+        newRecording.enable(ProductServiceEvent.class).withThreshold(Duration.ZERO);
+        newRecording.enable(RepositoryQueryEvent.class).withThreshold(Duration.ZERO);
+        newRecording.setToDisk(true);
+        newRecording.setMaxSize(properties.getMaxSize().toBytes());
+        newRecording.setDuration(selectedDuration);
+        newRecording.setDestination(destination);
+        newRecording.start();
+
+        recording = newRecording;
+        recordingFile = destination;
+        preset = selectedPreset;
+        startedAt = new Date();
+        duration = selectedDuration;
+        log.info("Grabación JFR iniciada: preset={}, duración={}s", selectedPreset, selectedDuration.toSeconds());
+        return status();
+    }
+
+    public synchronized ProfilingStatus stop() {
+        if (!isRecording()) {
+            throw new IllegalStateException("No hay una grabación en curso");
+        }
+        recording.stop();
+        log.info("Grabación JFR detenida");
+        return status();
+    }
+
+    public synchronized ProfilingStatus status() {
+        if (recording == null) {
+            return ProfilingStatus.builder().state("IDLE").build();
+        }
+
+        ProfilingStatus.ProfilingStatusBuilder status = ProfilingStatus.builder()
+                .preset(preset)
+                .startedAt(startedAt)
+                .durationSeconds(duration.toSeconds())
+                .maxSizeBytes(properties.getMaxSize().toBytes());
+        if (isRecording()) {
+            return status.state("RECORDING").build();
+        }
+        return status.state("FINISHED").summary(summary()).build();
+    }
+
+    /**
+     * @return archivo {@code .jfr} de la última grabación terminada, o {@code null} si no hay ninguno
+     */
+    public synchronized Path finishedRecording() {
+        return recording != null && !isRecording() ? recordingFile : null;
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        discard();
+    }
+
+    private ProfilingSummary summary() {
+        if (summary == null) {
+            recording.close();
+            try {
+                summary = new RecordingSummarizer(properties.getTopEntries(), properties.getApplicationPackage())
+                        .summarize(recordingFile);
+            } catch (IOException e) {
+                log.warn("No se pudo leer la grabación JFR {}: {}", recordingFile, e.getMessage());
+                return null;
+            }
+        }
+        return summary;
+    }
+
+    private boolean isRecording() {
+        if (recording == null) {
+            return false;
+        }
+        RecordingState state = recording.getState();
+        return state == RecordingState.NEW || state == RecordingState.DELAYED || state == RecordingState.RUNNING;
+    }
+
+    private void discard() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+        if (recordingFile != null) {
+            try {
+                Files.deleteIfExists(recordingFile);
+            } catch (IOException e) {
+                log.warn("No se pudo eliminar la grabación JFR {}: {}", recordingFile, e.getMessage());
+            }
+            recordingFile = null;
+        }
+        summary = null;
+    }
+}
@@ -0,0 +1,67 @@
+package com.linktic.ms_stockflow_products.profiling;
+
+import jdk.jfr.EventType;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Emite eventos JFR alrededor de cada llamada a {@code ProductService} y a los repositorios.
+ * Sin una grabación activa los tipos de evento están deshabilitados y el costo es una lectura de bandera.
+ * <p>
+ * Solo se intercepta {@code ProductServiceImpl}: con sharding, {@code ShardedProductServiceImpl} delega en
+ * ella y cada llamada se registraría dos veces. Así se obtiene un evento por shard consultado.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class JfrEventsAspect {
+
+    private static final EventType SERVICE_EVENT = EventType.getEventType(ProductServiceEvent.class);
+    private static final EventType REPOSITORY_EVENT = EventType.getEventType(RepositoryQueryEvent.class);
+
+    @Around("execution(* com.linktic.ms_stockflow_products.service.impl.ProductServiceImpl.*(..))")
+    public Object aroundProductService(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!SERVICE_EVENT.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        ProductServiceEvent event = new ProductServiceEvent();
+        event.operation = operationOf(joinPoint);
+        return record(event, joinPoint);
+    }
+
+    @Around("execution(* com.linktic.ms_stockflow_products.domain.repository..*Repository+.*(..))")
+    public Object aroundRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!REPOSITORY_EVENT.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        RepositoryQueryEvent event = new RepositoryQueryEvent();
+        event.operation = operationOf(joinPoint);
+        return record(event, joinPoint);
+    }
+
+    private static Object record(OperationEvent event, ProceedingJoinPoint joinPoint) throws Throwable {
+        boolean success = false;
+        event.begin();
+        try {
+            Object result = joinPoint.proceed();
+            success = true;
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.success = success;
+                event.commit();
+            }
+        }
+    }
+
+    private static String operationOf(ProceedingJoinPoint joinPoint) {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        return signature.getDeclaringType().getSimpleName() + "." + signature.getName();
+    }
+}
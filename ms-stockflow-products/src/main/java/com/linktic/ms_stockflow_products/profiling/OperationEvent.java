@@ -0,0 +1,16 @@
+package com.linktic.ms_stockflow_products.profiling;
+
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+/**
+ * Campos comunes de los eventos JFR propios: la operación instrumentada y si terminó sin excepción
+ */
+public abstract class OperationEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Success")
+    boolean success;
+}
@@ -0,0 +1,20 @@
+package com.linktic.ms_stockflow_products.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR de una llamada a {@code ProductService}, incluida su transacción
+ */
+@Name(ProductServiceEvent.NAME)
+@Label("Product Service Call")
+@Description("Llamada a un método de ProductService")
+@Category({"StockFlow", "Service"})
+@StackTrace(false)
+public class ProductServiceEvent extends OperationEvent {
+
+    public static final String NAME = "stockflow.ProductService";
+}
@@ -0,0 +1,82 @@
+package com.linktic.ms_stockflow_products.profiling;
+
+import com.linktic.ms_stockflow_products.exception.ErrorResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Perfilado bajo demanda con Java Flight Recorder:
+ * <ul>
+ *     <li>{@code POST /actuator/profiling} inicia una grabación ({@code preset}, {@code durationSeconds})</li>
+ *     <li>{@code GET /actuator/profiling} devuelve el estado y, al terminar, el resumen</li>
+ *     <li>{@code DELETE /actuator/profiling} detiene la grabación antes de tiempo</li>
+ *     <li>{@code GET /actuator/profiling/recording} descarga el archivo {@code .jfr} para JDK Mission Control</li>
+ * </ul>
+ */
+@Component
+@WebEndpoint(id = "profiling")
+@RequiredArgsConstructor
+public class ProfilingEndpoint {
+
+    private static final String RECORDING = "recording";
+    private static final String PATH = "/actuator/profiling";
+    private static final int STATUS_CONFLICT = 409;
+
+    private final FlightRecorderProfiler profiler;
+
+    @ReadOperation
+    public ProfilingStatus status() {
+        return profiler.status();
+    }
+
+    @ReadOperation
+    public WebEndpointResponse<Resource> recording(@Selector String name) {
+        Path file = RECORDING.equals(name) ? profiler.finishedRecording() : null;
+        if (file == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        return new WebEndpointResponse<>(new FileSystemResource(file));
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<Object> start(@Nullable String preset, @Nullable Long durationSeconds) {
+        try {
+            Duration duration = durationSeconds != null ? Duration.ofSeconds(durationSeconds) : null;
+            return new WebEndpointResponse<>(profiler.start(preset, duration));
+        } catch (IllegalStateException e) {
+            return error(STATUS_CONFLICT, "Conflicto", e);
+        } catch (IllegalArgumentException e) {
+            return error(WebEndpointResponse.STATUS_BAD_REQUEST, "Argumento inválido", e);
+        } catch (Exception e) {
+            return error(WebEndpointResponse.STATUS_INTERNAL_SERVER_ERROR, "No se pudo iniciar la grabación", e);
+        }
+    }
+
+    @DeleteOperation
+    public WebEndpointResponse<Object> stop() {
+        try {
+            return new WebEndpointResponse<>(profiler.stop());
+        } catch (IllegalStateException e) {
+            return error(STATUS_CONFLICT, "Conflicto", e);
+        }
+    }
+
+    private static WebEndpointResponse<Object> error(int status, String message, Exception e) {
+        ErrorResponse body = new ErrorResponse(status, message, List.of(String.valueOf(e.getMessage())), new Date(), PATH);
+        return new WebEndpointResponse<>(body, status);
+    }
+}
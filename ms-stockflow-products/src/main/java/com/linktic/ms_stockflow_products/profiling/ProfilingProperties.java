@@ -0,0 +1,37 @@
+package com.linktic.ms_stockflow_products.profiling;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "stockflow.profiling")
+public class ProfilingProperties {
+
+    /**
+     * Duración de una grabación si no se indica otra
+     */
+    private Duration defaultDuration = Duration.ofSeconds(60);
+
+    /**
+     * Duración máxima permitida; la grabación se detiene sola al cumplirse
+     */
+    private Duration maxDuration = Duration.ofMinutes(5);
+
+    /**
+     * Tamaño máximo en disco de la grabación; al superarlo JFR descarta los datos más antiguos
+     */
+    private DataSize maxSize = DataSize.ofMegabytes(64);
+
+    /**
+     * Entradas de cada ranking del resumen
+     */
+    private int topEntries = 15;
+
+    /**
+     * Prefijo de paquete del código propio, para el ranking de métodos de la aplicación
+     */
+    private String applicationPackage = "com.linktic";
+}
@@ -0,0 +1,33 @@
+package com.linktic.ms_stockflow_products.profiling;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProfilingStatus {
+
+    // IDLE, RECORDING o FINISHED
+    private String state;
+
+    private String preset;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private Date startedAt;
+
+    private Long durationSeconds;
+
+    private Long maxSizeBytes;
+
+    // Disponible cuando la grabación terminó
+    private ProfilingSummary summary;
+}
@@ -0,0 +1,90 @@
+package com.linktic.ms_stockflow_products.profiling;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Resumen de una grabación JFR: métodos calientes, sitios de asignación, contención de locks y
+ * tiempos de los eventos propios de servicio y repositorio.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProfilingSummary {
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private Date from;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private Date to;
+
+    // Muestras de ejecución de hilos Java
+    private long executionSamples;
+
+    // Métodos en el tope de la pila (tiempo propio)
+    private List<MethodSamples> hotMethods;
+
+    // Primer método de la aplicación en cada pila (tiempo inclusivo atribuido al código propio)
+    private List<MethodSamples> hotApplicationMethods;
+
+    // Bytes asignados estimados por sitio de asignación y tipo
+    private List<AllocationSite> allocationSites;
+
+    // Bloqueos por monitores (synchronized) y esperas en locks de java.util.concurrent
+    private List<LockContention> lockContention;
+
+    private List<OperationTiming> productServiceCalls;
+
+    private List<OperationTiming> repositoryQueries;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class MethodSamples {
+        private String method;
+        private long samples;
+        private double percentage;
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class AllocationSite {
+        private String method;
+        private String objectClass;
+        private long bytes;
+        private double percentage;
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class LockContention {
+        // monitor o park
+        private String type;
+        private String lockClass;
+        private String method;
+        private long events;
+        private double totalMillis;
+        private double maxMillis;
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class OperationTiming {
+        private String operation;
+        private long calls;
+        private long failures;
+        private double totalMillis;
+        private double meanMillis;
+        private double maxMillis;
+    }
+}
@@ -0,0 +1,210 @@
+package com.linktic.ms_stockflow_products.profiling;
+
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedMethod;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * Recorre un archivo {@code .jfr} una sola vez y agrega los eventos en rankings
+ */
+final class RecordingSummarizer {
+
+    private static final String EXECUTION_SAMPLE = "jdk.ExecutionSample";
+    private static final String ALLOCATION_SAMPLE = "jdk.ObjectAllocationSample";
+    private static final String MONITOR_ENTER = "jdk.JavaMonitorEnter";
+    private static final String THREAD_PARK = "jdk.ThreadPark";
+    private static final String UNKNOWN = "desconocido";
+    private static final String PROFILING_PACKAGE = RecordingSummarizer.class.getPackageName();
+
+    private final int topEntries;
+    private final String applicationPackage;
+
+    private final Map<String, Tally> hotMethods = new HashMap<>();
+    private final Map<String, Tally> hotApplicationMethods = new HashMap<>();
+    private final Map<String, Tally> allocationSites = new HashMap<>();
+    private final Map<String, Tally> lockContention = new HashMap<>();
+    private final Map<String, Tally> serviceCalls = new HashMap<>();
+    private final Map<String, Tally> repositoryQueries = new HashMap<>();
+    private long executionSamples;
+    private long allocatedBytes;
+    private Instant from;
+    private Instant to;
+
+    RecordingSummarizer(int topEntries, String applicationPackage) {
+        this.topEntries = topEntries;
+        this.applicationPackage = applicationPackage;
+    }
+
+    ProfilingSummary summarize(Path recording) throws IOException {
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                accept(file.readEvent());
+            }
+        }
+
+        return ProfilingSummary.builder()
+                .from(from != null ? Date.from(from) : null)
+                .to(to != null ? Date.from(to) : null)
+                .executionSamples(executionSamples)
+                .hotMethods(top(hotMethods, (key, tally) ->
+                        new ProfilingSummary.MethodSamples(key, tally.count, percentage(tally.count, executionSamples))))
+                .hotApplicationMethods(top(hotApplicationMethods, (key, tally) ->
+                        new ProfilingSummary.MethodSamples(key, tally.count, percentage(tally.count, executionSamples))))
+                .allocationSites(top(allocationSites, (key, tally) -> {
+                    String[] parts = key.split("\n", 2);
+                    return new ProfilingSummary.AllocationSite(parts[0], parts[1], tally.total,
+                            percentage(tally.total, allocatedBytes));
+                }))
+                .lockContention(top(lockContention, (key, tally) -> {
+                    String[] parts = key.split("\n", 3);
+                    return new ProfilingSummary.LockContention(parts[0], parts[1], parts[2], tally.count,
+                            millis(tally.total), millis(tally.max));
+                }))
+                .productServiceCalls(top(serviceCalls, RecordingSummarizer::timing))
+                .repositoryQueries(top(repositoryQueries, RecordingSummarizer::timing))
+                .build();
+    }
+
+    private void accept(RecordedEvent event) {
+        Instant start = event.getStartTime();
+        if (from == null || start.isBefore(from)) {
+            from = start;
+        }
+        if (to == null || event.getEndTime().isAfter(to)) {
+            to = event.getEndTime();
+        }
+
+        switch (event.getEventType().getName()) {
+            case EXECUTION_SAMPLE -> {
+                executionSamples++;
+                RecordedStackTrace stackTrace = event.getStackTrace();
+                tally(hotMethods, topFrame(stackTrace)).add(1);
+                String applicationFrame = firstApplicationFrame(stackTrace);
+                if (applicationFrame != null) {
+                    tally(hotApplicationMethods, applicationFrame).add(1);
+                }
+            }
+            case ALLOCATION_SAMPLE -> {
+                long weight = event.getLong("weight");
+                allocatedBytes += weight;
+                RecordedClass objectClass = event.getClass("objectClass");
+                String key = topFrame(event.getStackTrace()) + "\n" + (objectClass != null ? objectClass.getName() : UNKNOWN);
+                tally(allocationSites, key).add(weight);
+            }
+            case MONITOR_ENTER -> contention(event, "monitor", "monitorClass");
+            case THREAD_PARK -> contention(event, "park", "parkedClass");
+            case ProductServiceEvent.NAME -> operation(serviceCalls, event);
+            case RepositoryQueryEvent.NAME -> operation(repositoryQueries, event);
+            default -> {
+                // Otros eventos del preset no forman parte del resumen
+            }
+        }
+    }
+
+    private void contention(RecordedEvent event, String type, String classField) {
+        RecordedClass lockClass = event.getClass(classField);
+        String key = type + "\n" + (lockClass != null ? lockClass.getName() : UNKNOWN)
+                + "\n" + firstApplicationFrameOrTop(event.getStackTrace());
+        tally(lockContention, key).add(event.getDuration().toNanos());
+    }
+
+    private static void operation(Map<String, Tally> operations, RecordedEvent event) {
+        Tally tally = tally(operations, event.getString("operation"));
+        tally.add(event.getDuration().toNanos());
+        if (!event.getBoolean("success")) {
+            tally.failures++;
+        }
+    }
+
+    private String firstApplicationFrameOrTop(RecordedStackTrace stackTrace) {
+        String frame = firstApplicationFrame(stackTrace);
+        return frame != null ? frame : topFrame(stackTrace);
+    }
+
+    private String firstApplicationFrame(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return null;
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            RecordedMethod method = frame.getMethod();
+            if (method != null && isApplicationType(method.getType().getName())) {
+                return format(frame);
+            }
+        }
+        return null;
+    }
+
+    private boolean isApplicationType(String typeName) {
+        // Se omiten los proxies (CGLIB) de Spring y el propio aspecto de eventos, que envuelve cada llamada
+        return typeName.startsWith(applicationPackage)
+                && !typeName.contains("$$")
+                && !typeName.startsWith(PROFILING_PACKAGE);
+    }
+
+    private static String topFrame(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return UNKNOWN;
+        }
+        return format(stackTrace.getFrames().get(0));
+    }
+
+    private static String format(RecordedFrame frame) {
+        RecordedMethod method = frame.getMethod();
+        if (method == null) {
+            return UNKNOWN;
+        }
+        String name = method.getType().getName() + "." + method.getName();
+        return frame.getLineNumber() > 0 ? name + ":" + frame.getLineNumber() : name;
+    }
+
+    private <T> List<T> top(Map<String, Tally> tallies, BiFunction<String, Tally, T> mapper) {
+        return tallies.entrySet().stream()
+                .sorted(Comparator.comparing((Map.Entry<String, Tally> entry) -> entry.getValue().total).reversed())
+                .limit(topEntries)
+                .map(entry -> mapper.apply(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    private static ProfilingSummary.OperationTiming timing(String operation, Tally tally) {
+        return new ProfilingSummary.OperationTiming(operation, tally.count, tally.failures,
+                millis(tally.total), tally.count == 0 ? 0 : millis(tally.total / tally.count), millis(tally.max));
+    }
+
+    private static Tally tally(Map<String, Tally> tallies, String key) {
+        return tallies.computeIfAbsent(key, ignored -> new Tally());
+    }
+
+    private static double percentage(long part, long total) {
+        return total == 0 ? 0 : Math.round(10_000.0 * part / total) / 100.0;
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+
+    private static final class Tally {
+        private long count;
+        private long total;
+        private long max;
+        private long failures;
+
+        void add(long value) {
+            count++;
+            total += value;
+            max = Math.max(max, value);
+        }
+    }
+}
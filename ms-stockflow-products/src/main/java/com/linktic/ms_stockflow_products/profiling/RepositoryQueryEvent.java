@@ -0,0 +1,20 @@
+package com.linktic.ms_stockflow_products.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR de una consulta a un repositorio de Spring Data
+ */
+@Name(RepositoryQueryEvent.NAME)
+@Label("Repository Query")
+@Description("Llamada a un método de un repositorio JPA")
+@Category({"StockFlow", "Repository"})
+@StackTrace(false)
+public class RepositoryQueryEvent extends OperationEvent {
+
+    public static final String NAME = "stockflow.RepositoryQuery";
+}
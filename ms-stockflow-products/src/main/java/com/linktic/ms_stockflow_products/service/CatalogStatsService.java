@@ -0,0 +1,51 @@
+package com.linktic.ms_stockflow_products.service;
+
+import com.linktic.ms_stockflow_products.controller.dto.ProductStatsDTO;
+import com.linktic.ms_stockflow_products.domain.repository.projection.RepricedProductRow;
+
+import java.util.List;
+
+public interface CatalogStatsService {
+
+    /**
+     * Obtiene las estadísticas del catálogo sin recorrer la tabla de productos
+     * @return estadísticas actuales
+     */
+    ProductStatsDTO getStats();
+
+    /**
+     * Registra un producto nuevo; se aplica al confirmar la transacción en curso
+     * @param price precio del producto
+     * @param active estado del producto
+     */
+    void recordCreated(Integer price, Boolean active);
+
+    /**
+     * Registra el cambio de precio o estado de un producto; se aplica al confirmar la transacción en curso
+     * @param oldPrice precio anterior
+     * @param oldActive estado anterior
+     * @param newPrice precio nuevo
+     * @param newActive estado nuevo
+     */
+    void recordUpdated(Integer oldPrice, Boolean oldActive, Integer newPrice, Boolean newActive);
+
+    /**
+     * Registra en bloque los productos modificados por un lote de reprecio: el lote se reduce a un solo
+     * delta que se aplica al confirmar la transacción en curso
+     * @param rows productos modificados, con el precio anterior y el nuevo
+     */
+    void recordRepriced(List<RepricedProductRow> rows);
+
+    /**
+     * Registra un producto que sale de la tabla de productos (por ejemplo, al archivarse);
+     * se aplica al confirmar la transacción en curso
+     * @param price precio del producto
+     * @param active estado del producto
+     */
+    void recordRemoved(Integer price, Boolean active);
+
+    /**
+     * Recalcula los agregados con una consulta completa y corrige cualquier desviación
+     */
+    void recompute();
+}
@@ -0,0 +1,11 @@
+package com.linktic.ms_stockflow_products.service;
+
+public interface ProductArchiveService {
+
+    /**
+     * Mueve a las tablas de archivo, en lotes, los productos inactivos que no cambian desde hace más de
+     * {@code stockflow.archive.inactive-for}
+     * @return cantidad de productos archivados
+     */
+    int archiveInactiveProducts();
+}
@@ -1,13 +1,21 @@
 package com.linktic.ms_stockflow_products.service;
 
+import com.linktic.ms_stockflow_products.controller.dto.ProductAvailabilityDTO;
 import com.linktic.ms_stockflow_products.controller.dto.ProductCreateDTO;
 import com.linktic.ms_stockflow_products.controller.dto.ProductDTO;
 import com.linktic.ms_stockflow_products.controller.dto.ProductUpdateDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.List;
+
 public interface ProductService {
 
+    /**
+     * Máximo de códigos por consulta de disponibilidad en lote
+     */
+    int MAX_BATCH_SIZE = 100;
+
     /**
      * Crea un nuevo producto
      * @param request datos del producto a crear
@@ -37,9 +45,31 @@ public interface ProductService {
     void deleteProduct(Integer productCode);
 
     /**
-     * Lista todos los productos con paginación
+     * Lista los productos con paginación; los productos archivados no se incluyen
+     * @param active si no es nulo, solo se listan los productos con ese estado
      * @param pageable configuración de paginación
      * @return página con productos
      */
-    Page<ProductDTO> getAllProducts(Pageable pageable);
+    Page<ProductDTO> getAllProducts(Boolean active, Pageable pageable);
+
+    /**
+     * Obtiene un producto junto con su stock disponible
+     * @param productCode código del producto
+     * @return producto con su stock
+     */
+    ProductAvailabilityDTO getProductAvailability(Integer productCode);
+
+    /**
+     * Obtiene varios productos junto con su stock disponible; los códigos inexistentes se omiten
+     * @param productCodes códigos de los productos, como máximo {@link #MAX_BATCH_SIZE} (lo valida el controlador)
+     * @return productos encontrados con su stock
+     */
+    List<ProductAvailabilityDTO> getProductsAvailability(List<Integer> productCodes);
+
+    /**
+     * Lista los productos junto con su stock disponible con paginación
+     * @param pageable configuración de paginación
+     * @return página con productos y su stock
+     */
+    Page<ProductAvailabilityDTO> getAllProductsAvailability(Pageable pageable);
 }
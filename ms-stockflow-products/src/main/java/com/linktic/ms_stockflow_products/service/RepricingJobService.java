@@ -0,0 +1,38 @@
+package com.linktic.ms_stockflow_products.service;
+
+import com.linktic.ms_stockflow_products.controller.dto.RepricingJobDTO;
+import com.linktic.ms_stockflow_products.controller.dto.RepricingJobRequestDTO;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface RepricingJobService {
+
+    /**
+     * Registra un trabajo de reprecio, divide el catálogo en rangos de product_code y empieza a
+     * procesarlos en segundo plano
+     * @param request regla y filtros del reprecio
+     * @return trabajo creado
+     */
+    RepricingJobDTO createJob(RepricingJobRequestDTO request);
+
+    /**
+     * Obtiene el estado y avance de un trabajo
+     * @param jobId identificador del trabajo
+     * @return trabajo con su avance
+     */
+    RepricingJobDTO getJob(UUID jobId);
+
+    /**
+     * Lista los últimos trabajos creados
+     * @return trabajos con su avance, del más reciente al más antiguo
+     */
+    List<RepricingJobDTO> getRecentJobs();
+
+    /**
+     * Reanuda un trabajo fallido (o en curso sin procesar en esta instancia) desde el último lote confirmado
+     * @param jobId identificador del trabajo
+     * @return trabajo reanudado
+     */
+    RepricingJobDTO resumeJob(UUID jobId);
+}
@@ -0,0 +1,289 @@
+package com.linktic.ms_stockflow_products.service.impl;
+
+import com.linktic.ms_stockflow_products.config.CatalogStatsProperties;
+import com.linktic.ms_stockflow_products.controller.dto.PriceBucketDTO;
+import com.linktic.ms_stockflow_products.controller.dto.ProductStatsDTO;
+import com.linktic.ms_stockflow_products.domain.repository.ProductRepository;
+import com.linktic.ms_stockflow_products.domain.repository.projection.ProductPriceCount;
+import com.linktic.ms_stockflow_products.domain.repository.projection.RepricedProductRow;
+import com.linktic.ms_stockflow_products.service.CatalogStatsService;
+import com.linktic.ms_stockflow_products.sharding.ShardRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Mantiene las estadísticas del catálogo en memoria y las actualiza de forma incremental con cada
+ * escritura confirmada, de modo que {@link #getStats()} responde en tiempo constante. Un recálculo
+ * periódico verifica los agregados y corrige desviaciones (por ejemplo, escrituras de otras instancias).
+ * <p>
+ * Las escrituras confirmadas mientras corre el recálculo pueden no estar en el resultado de la consulta
+ * (READ COMMITTED toma la foto al iniciar la sentencia): se acumulan aparte y se suman al resultado antes de
+ * instalarlo, tanto en la verificación periódica como en el cálculo inicial.
+ */
+@Service
+@Slf4j
+public class CatalogStatsServiceImpl implements CatalogStatsService {
+
+    private final ProductRepository productRepository;
+    private final ObjectProvider<ShardRouter> shardRouter;
+    private final int[] histogramBounds;
+
+    private final Object lock = new Object();
+    // Serializa los recálculos: solo uno acumula las escrituras concurrentes a la vez
+    private final Object recomputeLock = new Object();
+    private Aggregates aggregates;
+    // Escrituras confirmadas desde que empezó el recálculo en curso; null si no hay recálculo
+    private Aggregates concurrentDeltas;
+    private Date verifiedAt;
+    private volatile ProductStatsDTO snapshot;
+
+    public CatalogStatsServiceImpl(ProductRepository productRepository, ObjectProvider<ShardRouter> shardRouter,
+                                   CatalogStatsProperties properties) {
+        this.productRepository = productRepository;
+        this.shardRouter = shardRouter;
+        this.histogramBounds = properties.getHistogramBounds().stream()
+                .mapToInt(Integer::intValue)
+                .sorted()
+                .distinct()
+                .toArray();
+    }
+
+    @Override
+    public ProductStatsDTO getStats() {
+        ProductStatsDTO current = snapshot;
+        if (current == null) {
+            recompute();
+            current = snapshot;
+        }
+        return current;
+    }
+
+    @Override
+    public void recordCreated(Integer price, Boolean active) {
+        afterCommit(() -> apply(aggregates -> aggregates.add(price, active, 1)));
+    }
+
+    @Override
+    public void recordUpdated(Integer oldPrice, Boolean oldActive, Integer newPrice, Boolean newActive) {
+        if (Objects.equals(oldPrice, newPrice) && isActive(oldActive) == isActive(newActive)) {
+            return;
+        }
+        afterCommit(() -> apply(aggregates -> {
+            aggregates.add(oldPrice, oldActive, -1);
+            aggregates.add(newPrice, newActive, 1);
+        }));
+    }
+
+    @Override
+    public void recordRepriced(List<RepricedProductRow> rows) {
+        // El delta se arma fuera del lock; al confirmar solo se combinan los precios distintos del lote
+        Aggregates delta = new Aggregates(histogramBounds);
+        for (RepricedProductRow row : rows) {
+            if (!Objects.equals(row.getOldPrice(), row.getNewPrice())) {
+                delta.add(row.getOldPrice(), row.getActive(), -1);
+                delta.add(row.getNewPrice(), row.getActive(), 1);
+            }
+        }
+        if (!delta.priceCounts.isEmpty()) {
+            afterCommit(() -> apply(aggregates -> aggregates.merge(delta)));
+        }
+    }
+
+    @Override
+    public void recordRemoved(Integer price, Boolean active) {
+        afterCommit(() -> apply(aggregates -> aggregates.add(price, active, -1)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        recompute();
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${stockflow.stats.verify-interval:PT5M}",
+            initialDelayString = "${stockflow.stats.verify-interval:PT5M}")
+    public void recompute() {
+        synchronized (recomputeLock) {
+            synchronized (lock) {
+                concurrentDeltas = new Aggregates(histogramBounds);
+            }
+
+            Aggregates computed = new Aggregates(histogramBounds);
+            try {
+                for (ProductPriceCount row : countByPriceAndActive()) {
+                    computed.add(row.getPrice(), row.getActive(), row.getTotal());
+                }
+            } catch (RuntimeException e) {
+                synchronized (lock) {
+                    concurrentDeltas = null;
+                }
+                throw e;
+            }
+
+            synchronized (lock) {
+                // Una escritura confirmada justo antes de la consulta cuyo afterCommit llega después de iniciar
+                // el recálculo se cuenta dos veces; la diferencia se corrige en la siguiente verificación
+                computed.merge(concurrentDeltas);
+                concurrentDeltas = null;
+                if (aggregates != null && !aggregates.equals(computed)) {
+                    log.warn("Estadísticas del catálogo desviadas, se corrigen: incremental={}, recalculado={}",
+                            aggregates, computed);
+                }
+                aggregates = computed;
+                verifiedAt = new Date();
+                snapshot = aggregates.toDTO(verifiedAt);
+            }
+            log.info("Estadísticas del catálogo verificadas: {} productos", computed.totalCount);
+        }
+    }
+
+    private List<ProductPriceCount> countByPriceAndActive() {
+        ShardRouter router = shardRouter.getIfAvailable();
+        if (router == null) {
+            return productRepository.countByPriceAndActive();
+        }
+        // Modo particionado: cada shard agrupa sus productos y los conteos se suman en Aggregates
+        List<ProductPriceCount> rows = new ArrayList<>();
+        router.scatter(shard -> productRepository.countByPriceAndActive()).forEach(rows::addAll);
+        return rows;
+    }
+
+    private void apply(Consumer<Aggregates> mutation) {
+        synchronized (lock) {
+            if (concurrentDeltas != null) {
+                mutation.accept(concurrentDeltas);
+            }
+            // Sin línea base ni recálculo en curso, la escritura ya está confirmada y el primer recálculo la incluye
+            if (aggregates != null) {
+                mutation.accept(aggregates);
+                snapshot = aggregates.toDTO(verifiedAt);
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static boolean isActive(Boolean active) {
+        // La columna active tiene valor por defecto true
+        return active == null || active;
+    }
+
+    /**
+     * Agregados mutables; se acceden siempre bajo el lock del servicio.
+     */
+    private static final class Aggregates {
+
+        private final int[] bounds;
+        private final long[] bucketCounts;
+        private final TreeMap<Integer, Long> priceCounts = new TreeMap<>();
+        private long totalCount;
+        private long activeCount;
+        private long priceSum;
+
+        private Aggregates(int[] bounds) {
+            this.bounds = bounds;
+            this.bucketCounts = new long[bounds.length + 1];
+        }
+
+        private void add(Integer price, Boolean active, long delta) {
+            int value = price != null ? price : 0;
+            totalCount += delta;
+            if (isActive(active)) {
+                activeCount += delta;
+            }
+            priceSum += value * delta;
+            bucketCounts[bucketOf(value)] += delta;
+            priceCounts.merge(value, delta, (current, change) -> current + change == 0 ? null : current + change);
+        }
+
+        private void merge(Aggregates deltas) {
+            totalCount += deltas.totalCount;
+            activeCount += deltas.activeCount;
+            priceSum += deltas.priceSum;
+            for (int i = 0; i < bucketCounts.length; i++) {
+                bucketCounts[i] += deltas.bucketCounts[i];
+            }
+            deltas.priceCounts.forEach((price, delta) ->
+                    priceCounts.merge(price, delta, (current, change) -> current + change == 0 ? null : current + change));
+        }
+
+        private int bucketOf(int price) {
+            int index = Arrays.binarySearch(bounds, price);
+            return index >= 0 ? index + 1 : -index - 1;
+        }
+
+        private ProductStatsDTO toDTO(Date verifiedAt) {
+            List<PriceBucketDTO> histogram = new ArrayList<>(bucketCounts.length);
+            for (int i = 0; i < bucketCounts.length; i++) {
+                histogram.add(PriceBucketDTO.builder()
+                        .fromPrice(i == 0 ? 0 : bounds[i - 1])
+                        .toPrice(i < bounds.length ? bounds[i] : null)
+                        .count(bucketCounts[i])
+                        .build());
+            }
+
+            Map.Entry<Integer, Long> min = priceCounts.firstEntry();
+            Map.Entry<Integer, Long> max = priceCounts.lastEntry();
+
+            return ProductStatsDTO.builder()
+                    .totalProducts(totalCount)
+                    .activeProducts(activeCount)
+                    .inactiveProducts(totalCount - activeCount)
+                    .minPrice(min != null ? min.getKey() : null)
+                    .maxPrice(max != null ? max.getKey() : null)
+                    .averagePrice(totalCount > 0 ? (double) priceSum / totalCount : null)
+                    .priceHistogram(List.copyOf(histogram))
+                    .verifiedAt(verifiedAt)
+                    .build();
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Aggregates that)) {
+                return false;
+            }
+            return totalCount == that.totalCount
+                    && activeCount == that.activeCount
+                    && priceSum == that.priceSum
+                    && Arrays.equals(bucketCounts, that.bucketCounts)
+                    && priceCounts.equals(that.priceCounts);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(totalCount, activeCount, priceSum);
+        }
+
+        @Override
+        public String toString() {
+            return "{total=" + totalCount + ", activos=" + activeCount + ", sumaPrecios=" + priceSum
+                    + ", histograma=" + Arrays.toString(bucketCounts) + "}";
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.linktic.ms_stockflow_products.service.impl;
+
+import com.linktic.ms_stockflow_products.config.ArchiveProperties;
+import com.linktic.ms_stockflow_products.domain.repository.ProductRepository;
+import com.linktic.ms_stockflow_products.domain.repository.projection.ArchivedProductRow;
+import com.linktic.ms_stockflow_products.service.CatalogStatsService;
+import com.linktic.ms_stockflow_products.service.ProductArchiveService;
+import com.linktic.ms_stockflow_products.sharding.ShardRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Separa los datos fríos de la tabla de productos: cada lote se archiva en su propia transacción corta,
+ * para no mantener bloqueos largos ni generar una sola transacción enorme, y las estadísticas del
+ * catálogo se actualizan al confirmar cada lote.
+ */
+@Service
+@Slf4j
+public class ProductArchiveServiceImpl implements ProductArchiveService {
+
+    private final ProductRepository productRepository;
+    private final CatalogStatsService catalogStatsService;
+    private final ObjectProvider<ShardRouter> shardRouter;
+    private final ArchiveProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    public ProductArchiveServiceImpl(ProductRepository productRepository,
+                                     CatalogStatsService catalogStatsService,
+                                     ObjectProvider<ShardRouter> shardRouter,
+                                     ArchiveProperties properties,
+                                     PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.catalogStatsService = catalogStatsService;
+        this.shardRouter = shardRouter;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${stockflow.archive.interval:PT1H}",
+            initialDelayString = "${stockflow.archive.interval:PT1H}")
+    public int archiveInactiveProducts() {
+        if (!properties.isEnabled()) {
+            return 0;
+        }
+        Date cutoff = new Date(System.currentTimeMillis() - properties.getInactiveFor().toMillis());
+
+        int archived = 0;
+        ShardRouter router = shardRouter.getIfAvailable();
+        if (router == null) {
+            archived = archiveBatches(cutoff);
+        } else {
+            // Modo particionado: cada shard archiva sus propios productos
+            for (int shard = 0; shard < router.getShardCount(); shard++) {
+                archived += router.callOnShard(shard, () -> archiveBatches(cutoff));
+            }
+        }
+
+        if (archived > 0) {
+            log.info("Se archivaron {} productos inactivos desde antes de {}", archived, cutoff);
+        }
+        return archived;
+    }
+
+    private int archiveBatches(Date cutoff) {
+        int archived = 0;
+        for (int batch = 0; batch < properties.getMaxBatchesPerRun(); batch++) {
+            List<ArchivedProductRow> rows = transactionTemplate.execute(status -> {
+                List<ArchivedProductRow> moved = productRepository.archiveInactiveBatch(cutoff, properties.getBatchSize());
+                moved.forEach(row -> catalogStatsService.recordRemoved(row.getPrice(), row.getActive()));
+                return moved;
+            });
+            archived += rows.size();
+            if (rows.size() < properties.getBatchSize()) {
+                break;
+            }
+        }
+        return archived;
+    }
+}
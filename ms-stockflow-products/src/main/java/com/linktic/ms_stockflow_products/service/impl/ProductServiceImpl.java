@@ -1,12 +1,19 @@
 package com.linktic.ms_stockflow_products.service.impl;
 
 import com.linktic.ms_stockflow_products.domain.builder.ObjectBuilder;
+import com.linktic.ms_stockflow_products.controller.dto.ProductAvailabilityDTO;
 import com.linktic.ms_stockflow_products.controller.dto.ProductCreateDTO;
 import com.linktic.ms_stockflow_products.controller.dto.ProductDTO;
 import com.linktic.ms_stockflow_products.controller.dto.ProductUpdateDTO;
+import com.linktic.ms_stockflow_products.domain.entity.ArchivedProduct;
 import com.linktic.ms_stockflow_products.domain.entity.Product;
+import com.linktic.ms_stockflow_products.domain.repository.ArchivedProductRepository;
 import com.linktic.ms_stockflow_products.domain.repository.ProductRepository;
+import com.linktic.ms_stockflow_products.domain.repository.projection.ProductAvailabilityRow;
+import com.linktic.ms_stockflow_products.domain.repository.projection.ProductStateRow;
 import com.linktic.ms_stockflow_products.exception.ProductNotFoundException;
+import com.linktic.ms_stockflow_products.existence.ProductExistenceFilter;
+import com.linktic.ms_stockflow_products.service.CatalogStatsService;
 import com.linktic.ms_stockflow_products.service.ProductService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -15,7 +22,11 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -23,137 +34,236 @@ import java.util.Date;
 public class ProductServiceImpl implements ProductService {
 
     private final ProductRepository productRepository;
+    private final ArchivedProductRepository archivedProductRepository;
     private final ObjectBuilder objectBuilder;
+    private final CatalogStatsService catalogStatsService;
+    private final ProductExistenceFilter existenceFilter;
 
     @Override
     @Transactional
     public ProductDTO createProduct(ProductCreateDTO request) {
-        try {
-            log.info("Iniciando creación de producto con nombre: {}", request.getName());
+        log.info("Iniciando creación de producto con nombre: {}", request.getName());
 
-            // Crear el producto (el código se genera automáticamente con @GeneratedValue)
-            Product product = objectBuilder.map(request, Product.class);
-            product.setCreatedAt(new Date());
-            product.setUpdatedAt(new Date());
+        // Crear el producto (el código se genera automáticamente con @GeneratedValue)
+        Product product = objectBuilder.map(request, Product.class);
+        product.setCreatedAt(new Date());
+        product.setUpdatedAt(new Date());
 
-            // Si no se especifica el estado, se establece como activo por defecto
-            if (product.getActive() == null) {
-                product.setActive(true);
-            }
+        // Si no se especifica el estado, se establece como activo por defecto
+        if (product.getActive() == null) {
+            product.setActive(true);
+        }
 
-            Product savedProduct = productRepository.save(product);
-            log.info("Producto creado exitosamente con código: {}", savedProduct.getProductCode());
+        Product savedProduct = productRepository.save(product);
+        catalogStatsService.recordCreated(savedProduct.getPrice(), savedProduct.getActive());
+        existenceFilter.add(savedProduct.getProductCode());
+        log.info("Producto creado exitosamente con código: {}", savedProduct.getProductCode());
 
-            return objectBuilder.map(savedProduct, ProductDTO.class);
-        } catch (Exception e) {
-            log.error("Error al crear producto: {}", e.getMessage(), e);
-            throw new RuntimeException("Error al crear el producto: " + e.getMessage(), e);
-        }
+        return objectBuilder.map(savedProduct, ProductDTO.class);
     }
 
+    /**
+     * Sin transacción propia: los códigos que el filtro de existencia descarta se responden sin tomar una
+     * conexión del pool, y cada consulta usa su propia conexión solo mientras se ejecuta
+     */
     @Override
-    @Transactional(readOnly = true)
     public ProductDTO getProductByCode(Integer productCode) {
-        try {
-            log.info("Buscando producto con código: {}", productCode);
+        log.debug("Buscando producto con código: {}", productCode);
 
-            Product product = productRepository.findByProductCode(productCode);
-            if (product == null) {
-                log.error("Producto con código {} no encontrado", productCode);
-                throw new ProductNotFoundException(productCode);
-            }
+        if (!existenceFilter.mightExist(productCode)) {
+            log.debug("Producto con código {} descartado por el filtro de existencia", productCode);
+            throw new ProductNotFoundException(productCode);
+        }
 
-            log.info("Producto encontrado: {}", product.getName());
+        Product product = productRepository.findByProductCode(productCode);
+        if (product != null) {
             return objectBuilder.map(product, ProductDTO.class);
-        } catch (ProductNotFoundException e) {
-            throw e;
-        } catch (Exception e) {
-            log.error("Error al buscar producto con código {}: {}", productCode, e.getMessage(), e);
-            throw new RuntimeException("Error al buscar el producto: " + e.getMessage(), e);
         }
+
+        // Los productos archivados siguen disponibles para consultas por código
+        ArchivedProduct archivedProduct = archivedProductRepository.findByProductCode(productCode);
+        if (archivedProduct == null) {
+            // Las búsquedas de códigos inexistentes son frecuentes: no se registran como error
+            log.debug("Producto con código {} no encontrado", productCode);
+            existenceFilter.recordFalsePositives(1);
+            throw new ProductNotFoundException(productCode);
+        }
+        return objectBuilder.map(archivedProduct, ProductDTO.class);
     }
 
     @Override
     @Transactional
     public ProductDTO updateProduct(Integer productCode, ProductUpdateDTO request) {
-        try {
-            log.info("Actualizando producto con código: {}", productCode);
+        log.info("Actualizando producto con código: {}", productCode);
 
-            Product product = productRepository.findByProductCode(productCode);
-            if (product == null) {
-                log.error("Producto con código {} no encontrado", productCode);
-                throw new ProductNotFoundException(productCode);
-            }
+        Product product = productRepository.findByProductCode(productCode);
+        if (product == null) {
+            product = restoreArchived(productCode);
+        }
+        if (product == null) {
+            log.debug("Producto con código {} no encontrado", productCode);
+            throw new ProductNotFoundException(productCode);
+        }
 
-            // Actualizar solo los campos que no sean nulos
-            if (request.getName() != null) {
-                product.setName(request.getName());
-            }
-            if (request.getDescription() != null) {
-                product.setDescription(request.getDescription());
-            }
-            if (request.getPrice() != null) {
-                product.setPrice(request.getPrice());
-            }
-            if (request.getActive() != null) {
-                product.setActive(request.getActive());
-            }
+        Integer previousPrice = product.getPrice();
+        Boolean previousActive = product.getActive();
+
+        // Actualizar solo los campos que no sean nulos
+        if (request.getName() != null) {
+            product.setName(request.getName());
+        }
+        if (request.getDescription() != null) {
+            product.setDescription(request.getDescription());
+        }
+        if (request.getPrice() != null) {
+            product.setPrice(request.getPrice());
+        }
+        if (request.getActive() != null) {
+            product.setActive(request.getActive());
+        }
+
+        product.setUpdatedAt(new Date());
 
-            product.setUpdatedAt(new Date());
+        Product updatedProduct = productRepository.save(product);
+        catalogStatsService.recordUpdated(previousPrice, previousActive,
+                updatedProduct.getPrice(), updatedProduct.getActive());
+        log.info("Producto actualizado exitosamente con código: {}", updatedProduct.getProductCode());
 
-            Product updatedProduct = productRepository.save(product);
-            log.info("Producto actualizado exitosamente con código: {}", updatedProduct.getProductCode());
+        return objectBuilder.map(updatedProduct, ProductDTO.class);
+    }
 
-            return objectBuilder.map(updatedProduct, ProductDTO.class);
-        } catch (ProductNotFoundException e) {
-            throw e;
-        } catch (Exception e) {
-            log.error("Error al actualizar producto con código {}: {}", productCode, e.getMessage(), e);
-            throw new RuntimeException("Error al actualizar el producto: " + e.getMessage(), e);
+    /**
+     * Actualizar un producto archivado lo devuelve a la tabla caliente, con su stock, antes de aplicar los cambios
+     * @return producto restaurado, o {@code null} si el código tampoco está archivado
+     */
+    private Product restoreArchived(Integer productCode) {
+        ProductStateRow restored = archivedProductRepository.restore(productCode);
+        if (restored == null) {
+            return null;
         }
+        // Al archivarse salió de las estadísticas: vuelve a contarse antes de registrar la actualización
+        catalogStatsService.recordCreated(restored.getPrice(), restored.getActive());
+        log.info("Producto con código {} restaurado desde el archivo", productCode);
+        return productRepository.findByProductCode(productCode);
     }
 
     @Override
     @Transactional
     public void deleteProduct(Integer productCode) {
-        try {
-            log.info("Eliminando producto con código: {}", productCode);
+        log.info("Eliminando producto con código: {}", productCode);
 
-            Product product = productRepository.findByProductCode(productCode);
-            if (product == null) {
-                log.error("Producto con código {} no encontrado", productCode);
-                throw new ProductNotFoundException(productCode);
+        Product product = productRepository.findByProductCode(productCode);
+        if (product == null) {
+            if (archivedProductRepository.existsById(productCode)) {
+                // Un producto archivado ya está inactivo: repetir la eliminación no tiene efecto
+                log.debug("Producto con código {} ya archivado", productCode);
+                return;
             }
+            log.debug("Producto con código {} no encontrado", productCode);
+            throw new ProductNotFoundException(productCode);
+        }
 
-            // Eliminación lógica - marcar como inactivo
-            product.setActive(false);
-            product.setUpdatedAt(new Date());
-            productRepository.save(product);
+        // Eliminación lógica - marcar como inactivo
+        Boolean previousActive = product.getActive();
+        product.setActive(false);
+        product.setUpdatedAt(new Date());
+        productRepository.save(product);
+        catalogStatsService.recordUpdated(product.getPrice(), previousActive, product.getPrice(), false);
 
-            log.info("Producto con código {} marcado como inactivo", productCode);
-        } catch (ProductNotFoundException e) {
-            throw e;
-        } catch (Exception e) {
-            log.error("Error al eliminar producto con código {}: {}", productCode, e.getMessage(), e);
-            throw new RuntimeException("Error al eliminar el producto: " + e.getMessage(), e);
-        }
+        log.info("Producto con código {} marcado como inactivo", productCode);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<ProductDTO> getAllProducts(Pageable pageable) {
-        try {
-            log.info("Listando productos - Página: {}, Tamaño: {}",
-                    pageable.getPageNumber(), pageable.getPageSize());
+    public Page<ProductDTO> getAllProducts(Boolean active, Pageable pageable) {
+        log.info("Listando productos - Página: {}, Tamaño: {}, Activos: {}",
+                pageable.getPageNumber(), pageable.getPageSize(), active);
 
-            Page<Product> productsPage = productRepository.findAll(pageable);
+        // Los productos archivados no se listan: el listado solo recorre la tabla caliente
+        Page<Product> productsPage = active == null
+                ? productRepository.findAll(pageable)
+                : productRepository.findByActive(active, pageable);
 
-            log.info("Se encontraron {} productos", productsPage.getTotalElements());
+        log.info("Se encontraron {} productos", productsPage.getTotalElements());
 
-            return productsPage.map(product -> objectBuilder.map(product, ProductDTO.class));
-        } catch (Exception e) {
-            log.error("Error al listar productos: {}", e.getMessage(), e);
-            throw new RuntimeException("Error al listar los productos: " + e.getMessage(), e);
+        return productsPage.map(product -> objectBuilder.map(product, ProductDTO.class));
+    }
+
+    /**
+     * Sin transacción propia, como {@link #getProductByCode}
+     */
+    @Override
+    public ProductAvailabilityDTO getProductAvailability(Integer productCode) {
+        log.debug("Consultando disponibilidad del producto con código: {}", productCode);
+
+        if (!existenceFilter.mightExist(productCode)) {
+            log.debug("Producto con código {} descartado por el filtro de existencia", productCode);
+            throw new ProductNotFoundException(productCode);
+        }
+
+        ProductAvailabilityRow availability = productRepository.findAvailabilityByProductCode(productCode);
+        if (availability == null) {
+            availability = archivedProductRepository.findAvailabilityByProductCode(productCode);
         }
+        if (availability == null) {
+            log.debug("Producto con código {} no encontrado", productCode);
+            existenceFilter.recordFalsePositives(1);
+            throw new ProductNotFoundException(productCode);
+        }
+        return toAvailabilityDTO(availability);
+    }
+
+    /**
+     * Sin transacción propia, como {@link #getProductByCode}: si el filtro de existencia descarta todos los
+     * códigos no se consulta la base de datos
+     */
+    @Override
+    public List<ProductAvailabilityDTO> getProductsAvailability(List<Integer> productCodes) {
+        log.debug("Consultando disponibilidad de {} productos", productCodes.size());
+
+        Set<Integer> candidateCodes = new HashSet<>();
+        for (Integer productCode : productCodes) {
+            if (existenceFilter.mightExist(productCode)) {
+                candidateCodes.add(productCode);
+            }
+        }
+        if (candidateCodes.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<ProductAvailabilityRow> found = productRepository.findAvailabilityByProductCodeIn(candidateCodes);
+        List<ProductAvailabilityDTO> availability = new ArrayList<>(candidateCodes.size());
+        found.forEach(row -> availability.add(toAvailabilityDTO(row)));
+        if (found.size() < candidateCodes.size()) {
+            // Solo si faltan códigos se consulta el archivo, y únicamente por los faltantes
+            Set<Integer> missingCodes = new HashSet<>(candidateCodes);
+            found.forEach(row -> missingCodes.remove(row.getProductCode()));
+            List<ProductAvailabilityRow> archived = archivedProductRepository.findAvailabilityByProductCodeIn(missingCodes);
+            archived.forEach(row -> availability.add(toAvailabilityDTO(row)));
+            existenceFilter.recordFalsePositives(missingCodes.size() - archived.size());
+        }
+        return availability;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ProductAvailabilityDTO> getAllProductsAvailability(Pageable pageable) {
+        log.info("Listando disponibilidad de productos - Página: {}, Tamaño: {}",
+                pageable.getPageNumber(), pageable.getPageSize());
+
+        return productRepository.findAllAvailability(pageable).map(ProductServiceImpl::toAvailabilityDTO);
+    }
+
+    private static ProductAvailabilityDTO toAvailabilityDTO(ProductAvailabilityRow row) {
+        return ProductAvailabilityDTO.builder()
+                .productCode(row.getProductCode())
+                .name(row.getName())
+                .description(row.getDescription())
+                .price(row.getPrice())
+                .active(row.getActive())
+                .quantity(row.getQuantity())
+                .createdAt(row.getCreatedAt())
+                .updatedAt(row.getUpdatedAt())
+                .build();
     }
 }
@@ -0,0 +1,446 @@
+package com.linktic.ms_stockflow_products.service.impl;
+
+import com.linktic.ms_stockflow_products.config.RepricingProperties;
+import com.linktic.ms_stockflow_products.controller.dto.RepricingJobDTO;
+import com.linktic.ms_stockflow_products.controller.dto.RepricingJobRequestDTO;
+import com.linktic.ms_stockflow_products.domain.entity.RepricingJob;
+import com.linktic.ms_stockflow_products.domain.entity.RepricingJobRange;
+import com.linktic.ms_stockflow_products.domain.entity.RepricingJobStatus;
+import com.linktic.ms_stockflow_products.domain.entity.RepricingRuleType;
+import com.linktic.ms_stockflow_products.domain.repository.ProductRepository;
+import com.linktic.ms_stockflow_products.domain.repository.RepricingJobRangeRepository;
+import com.linktic.ms_stockflow_products.domain.repository.RepricingJobRepository;
+import com.linktic.ms_stockflow_products.domain.repository.projection.ProductCodeRange;
+import com.linktic.ms_stockflow_products.domain.repository.projection.RepricedProductRow;
+import com.linktic.ms_stockflow_products.exception.RepricingJobNotFoundException;
+import com.linktic.ms_stockflow_products.service.CatalogStatsService;
+import com.linktic.ms_stockflow_products.service.RepricingJobService;
+import com.linktic.ms_stockflow_products.sharding.ShardRouter;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Reprecio masivo del catálogo. Cada trabajo divide los códigos de cada shard en rangos que se procesan
+ * en paralelo, con un pool de tamaño {@code stockflow.repricing.parallelism} compartido por todos los
+ * trabajos. Cada lote bloquea hasta {@code chunk-size} productos, los actualiza con una sola sentencia y
+ * avanza {@code next_code} del rango en la misma transacción: tras una caída el trabajo se reanuda desde
+ * el último lote confirmado sin aplicar la regla dos veces al mismo producto. Las estadísticas del
+ * catálogo se actualizan con un solo delta al confirmar cada lote.
+ */
+@Service
+@Slf4j
+public class RepricingJobServiceImpl implements RepricingJobService {
+
+    private static final BigDecimal MIN_PERCENTAGE = BigDecimal.valueOf(-100);
+    // Shard en que se consultan los trabajos; en modo particionado cada trabajo se registra en todos
+    private static final int JOBS_SHARD = 0;
+
+    private final RepricingJobRepository jobRepository;
+    private final RepricingJobRangeRepository rangeRepository;
+    private final ProductRepository productRepository;
+    private final CatalogStatsService catalogStatsService;
+    private final ObjectProvider<ShardRouter> shardRouter;
+    private final RepricingProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor;
+
+    // Trabajos con rangos en ejecución en esta instancia
+    private final Set<UUID> activeJobs = ConcurrentHashMap.newKeySet();
+
+    public RepricingJobServiceImpl(RepricingJobRepository jobRepository,
+                                   RepricingJobRangeRepository rangeRepository,
+                                   ProductRepository productRepository,
+                                   CatalogStatsService catalogStatsService,
+                                   ObjectProvider<ShardRouter> shardRouter,
+                                   RepricingProperties properties,
+                                   PlatformTransactionManager transactionManager) {
+        this.jobRepository = jobRepository;
+        this.rangeRepository = rangeRepository;
+        this.productRepository = productRepository;
+        this.catalogStatsService = catalogStatsService;
+        this.shardRouter = shardRouter;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, properties.getParallelism()), runnable -> {
+            Thread thread = new Thread(runnable, "repricing-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public RepricingJobDTO createJob(RepricingJobRequestDTO request) {
+        validate(request);
+
+        Date now = new Date();
+        RepricingJob job = RepricingJob.builder()
+                .jobId(UUID.randomUUID())
+                .ruleType(request.getRuleType())
+                .ruleValue(request.getValue())
+                .activeFilter(request.getActive())
+                .minPrice(request.getMinPrice())
+                .maxPrice(request.getMaxPrice())
+                .status(RepricingJobStatus.RUNNING)
+                .startedAt(now)
+                .build();
+        job.setCreatedAt(now);
+        job.setUpdatedAt(now);
+
+        // En modo particionado el trabajo se registra en cada shard, junto a los productos que recorre
+        Map<Integer, List<RepricingJobRange>> rangesByShard = new TreeMap<>();
+        try {
+            for (int shard : shards()) {
+                rangesByShard.put(shard, onShard(shard, () -> transactionTemplate.execute(status -> createRanges(job))));
+            }
+        } catch (RuntimeException e) {
+            // Cada shard se registra en su propia transacción: sin deshacer los ya confirmados, el trabajo
+            // quedaría RUNNING a medias y se reanudaría al arrancar sin los rangos del shard que falló
+            rangesByShard.keySet().forEach(shard -> discardJob(shard, job.getJobId()));
+            throw e;
+        }
+
+        log.info("Trabajo de reprecio {} creado: {} {} en {} rangos", job.getJobId(), job.getRuleType(),
+                job.getRuleValue(), rangesByShard.values().stream().mapToInt(List::size).sum());
+        submit(job, rangesByShard);
+        return toDTO(job, rangesByShard);
+    }
+
+    @Override
+    public RepricingJobDTO getJob(UUID jobId) {
+        RepricingJob job = findJob(jobId);
+        return toDTO(job, loadRanges(jobId));
+    }
+
+    @Override
+    public List<RepricingJobDTO> getRecentJobs() {
+        List<RepricingJob> jobs = onShard(JOBS_SHARD, jobRepository::findTop20ByOrderByCreatedAtDesc);
+        List<RepricingJobDTO> result = new ArrayList<>(jobs.size());
+        jobs.forEach(job -> result.add(toDTO(job, loadRanges(job.getJobId()))));
+        return result;
+    }
+
+    @Override
+    public RepricingJobDTO resumeJob(UUID jobId) {
+        RepricingJob job = findJob(jobId);
+        if (job.getStatus() == RepricingJobStatus.COMPLETED) {
+            throw new IllegalArgumentException("El trabajo de reprecio " + jobId + " ya terminó");
+        }
+        if (!activeJobs.contains(jobId)) {
+            resume(job);
+        }
+        return getJob(jobId);
+    }
+
+    /**
+     * Reanuda los trabajos que quedaron en curso cuando la instancia se detuvo
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedJobs() {
+        if (!properties.isResumeOnStartup()) {
+            return;
+        }
+        List<RepricingJob> jobs = onShard(JOBS_SHARD, () -> jobRepository.findByStatus(RepricingJobStatus.RUNNING));
+        for (RepricingJob job : jobs) {
+            log.info("Reanudando el trabajo de reprecio {}", job.getJobId());
+            resume(job);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Los lotes interrumpidos se revierten; el trabajo sigue RUNNING y se reanuda al arrancar
+        executor.shutdownNow();
+    }
+
+    private void validate(RepricingJobRequestDTO request) {
+        if (request.getRuleType() == RepricingRuleType.PERCENTAGE && request.getValue().compareTo(MIN_PERCENTAGE) <= 0) {
+            throw new IllegalArgumentException("El porcentaje debe ser mayor que -100");
+        }
+        if (request.getRuleType() == RepricingRuleType.FIXED && request.getValue().stripTrailingZeros().scale() > 0) {
+            throw new IllegalArgumentException("El incremento fijo debe ser un valor entero");
+        }
+        if (request.getMinPrice() != null && request.getMaxPrice() != null
+                && request.getMinPrice() > request.getMaxPrice()) {
+            throw new IllegalArgumentException("El precio mínimo no puede ser mayor que el precio máximo");
+        }
+    }
+
+    private List<RepricingJobRange> createRanges(RepricingJob job) {
+        jobRepository.save(job);
+
+        ProductCodeRange codes = productRepository.findCodeRange();
+        if (codes == null || codes.getMinCode() == null) {
+            return List.of();
+        }
+
+        // Rangos de igual amplitud de códigos; un rango con pocos productos termina antes y libera su hilo
+        long span = (long) codes.getMaxCode() - codes.getMinCode() + 1;
+        int count = (int) Math.min(Math.max(1, properties.getRangesPerShard()), span);
+        Date now = new Date();
+        List<RepricingJobRange> ranges = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int fromCode = (int) (codes.getMinCode() + span * i / count);
+            int toCode = (int) (codes.getMinCode() + span * (i + 1) / count - 1);
+            RepricingJobRange range = RepricingJobRange.builder()
+                    .jobId(job.getJobId())
+                    .fromCode(fromCode)
+                    .toCode(toCode)
+                    .nextCode(fromCode)
+                    .productsUpdated(0L)
+                    .status(RepricingJobStatus.RUNNING)
+                    .build();
+            range.setCreatedAt(now);
+            range.setUpdatedAt(now);
+            ranges.add(range);
+        }
+        List<RepricingJobRange> saved = new ArrayList<>(count);
+        rangeRepository.saveAll(ranges).forEach(saved::add);
+        return saved;
+    }
+
+    private void discardJob(int shard, UUID jobId) {
+        try {
+            // Los rangos se eliminan en cascada
+            onShard(shard, () -> transactionTemplate.execute(status -> {
+                jobRepository.deleteById(jobId);
+                return null;
+            }));
+        } catch (RuntimeException e) {
+            log.error("No se pudo deshacer el registro del trabajo de reprecio {} en el shard {}: {}",
+                    jobId, shard, e.getMessage());
+        }
+    }
+
+    private void resume(RepricingJob job) {
+        Map<Integer, List<RepricingJobRange>> rangesByShard = new TreeMap<>();
+        for (int shard : shards()) {
+            rangesByShard.put(shard, onShard(shard, () -> transactionTemplate.execute(status -> {
+                jobRepository.findById(job.getJobId()).ifPresent(stored -> {
+                    stored.setStatus(RepricingJobStatus.RUNNING);
+                    stored.setErrorMessage(null);
+                    stored.setFinishedAt(null);
+                    stored.setUpdatedAt(new Date());
+                });
+                List<RepricingJobRange> ranges = rangeRepository.findByJobId(job.getJobId());
+                ranges.stream()
+                        .filter(range -> range.getStatus() == RepricingJobStatus.FAILED)
+                        .forEach(range -> range.setStatus(RepricingJobStatus.RUNNING));
+                return ranges;
+            })));
+        }
+        submit(job, rangesByShard);
+    }
+
+    private void submit(RepricingJob job, Map<Integer, List<RepricingJobRange>> rangesByShard) {
+        activeJobs.add(job.getJobId());
+
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+        rangesByShard.forEach((shard, ranges) -> ranges.stream()
+                .filter(range -> range.getStatus() == RepricingJobStatus.RUNNING)
+                .forEach(range -> tasks.add(CompletableFuture.runAsync(
+                        () -> processRange(job, shard, range.getRangeId()), executor))));
+
+        CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new))
+                .whenComplete((ignored, error) -> finish(job.getJobId(), error));
+    }
+
+    private void processRange(RepricingJob job, int shard, Long rangeId) {
+        try {
+            boolean pending = true;
+            while (pending && !Thread.currentThread().isInterrupted()) {
+                pending = onShard(shard, () -> transactionTemplate.execute(status -> processChunk(job, rangeId)));
+            }
+        } catch (RuntimeException e) {
+            if (!executor.isShutdown()) {
+                log.error("Falló el rango {} del trabajo de reprecio {}: {}", rangeId, job.getJobId(), e.getMessage());
+                markRangeFailed(shard, rangeId);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Procesa el siguiente lote del rango
+     * @return {@code true} si al rango le quedan productos por procesar
+     */
+    private boolean processChunk(RepricingJob job, Long rangeId) {
+        RepricingJobRange range = rangeRepository.lockById(rangeId);
+        if (range == null || range.getStatus() != RepricingJobStatus.RUNNING) {
+            // Otra instancia lo está procesando o ya terminó
+            return false;
+        }
+        range.setUpdatedAt(new Date());
+
+        Integer chunkEnd = productRepository.lockRepricingChunk(
+                range.getNextCode(), range.getToCode(), properties.getChunkSize());
+        if (chunkEnd == null) {
+            range.setStatus(RepricingJobStatus.COMPLETED);
+            return false;
+        }
+
+        Boolean activeFilter = job.getActiveFilter();
+        List<RepricedProductRow> rows = productRepository.repriceRange(
+                range.getNextCode(),
+                chunkEnd,
+                job.getRuleType() == RepricingRuleType.PERCENTAGE,
+                job.getRuleValue(),
+                job.getMinPrice() != null ? job.getMinPrice() : 0,
+                job.getMaxPrice() != null ? job.getMaxPrice() : Integer.MAX_VALUE,
+                activeFilter == null || activeFilter,
+                activeFilter == null || !activeFilter);
+        catalogStatsService.recordRepriced(rows);
+        range.setProductsUpdated(range.getProductsUpdated() + rows.size());
+
+        if (chunkEnd >= range.getToCode()) {
+            range.setStatus(RepricingJobStatus.COMPLETED);
+            return false;
+        }
+        range.setNextCode(chunkEnd + 1);
+        return true;
+    }
+
+    private void markRangeFailed(int shard, Long rangeId) {
+        try {
+            onShard(shard, () -> transactionTemplate.execute(status -> {
+                rangeRepository.findById(rangeId).ifPresent(range -> {
+                    range.setStatus(RepricingJobStatus.FAILED);
+                    range.setUpdatedAt(new Date());
+                });
+                return null;
+            }));
+        } catch (RuntimeException e) {
+            log.warn("No se pudo marcar como fallido el rango {}: {}", rangeId, e.getMessage());
+        }
+    }
+
+    private void finish(UUID jobId, Throwable error) {
+        activeJobs.remove(jobId);
+        if (executor.isShutdown()) {
+            // Apagado en curso: el trabajo queda RUNNING para reanudarse al arrancar
+            return;
+        }
+        try {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            Map<Integer, List<RepricingJobRange>> rangesByShard = loadRanges(jobId);
+            boolean pending = rangesByShard.values().stream()
+                    .flatMap(List::stream)
+                    .anyMatch(range -> range.getStatus() != RepricingJobStatus.COMPLETED);
+            if (cause == null && pending) {
+                // Rangos que procesa otra instancia; la que termine el último los dará por completados
+                log.info("El trabajo de reprecio {} tiene rangos pendientes; sigue en curso", jobId);
+                return;
+            }
+
+            RepricingJobStatus status = cause != null ? RepricingJobStatus.FAILED : RepricingJobStatus.COMPLETED;
+            String errorMessage = cause != null ? String.valueOf(cause.getMessage()) : null;
+            Date now = new Date();
+            for (int shard : shards()) {
+                onShard(shard, () -> transactionTemplate.execute(tx -> {
+                    jobRepository.findById(jobId).ifPresent(job -> {
+                        job.setStatus(status);
+                        job.setErrorMessage(errorMessage);
+                        job.setFinishedAt(now);
+                        job.setUpdatedAt(now);
+                    });
+                    return null;
+                }));
+            }
+            log.info("Trabajo de reprecio {} terminó con estado {}: {} productos modificados", jobId, status,
+                    rangesByShard.values().stream().flatMap(List::stream)
+                            .mapToLong(RepricingJobRange::getProductsUpdated).sum());
+        } catch (RuntimeException e) {
+            log.error("No se pudo registrar el fin del trabajo de reprecio {}: {}", jobId, e.getMessage(), e);
+        }
+    }
+
+    private RepricingJob findJob(UUID jobId) {
+        return onShard(JOBS_SHARD, () -> jobRepository.findById(jobId))
+                .orElseThrow(() -> new RepricingJobNotFoundException(jobId));
+    }
+
+    private Map<Integer, List<RepricingJobRange>> loadRanges(UUID jobId) {
+        Map<Integer, List<RepricingJobRange>> rangesByShard = new TreeMap<>();
+        for (int shard : shards()) {
+            rangesByShard.put(shard, onShard(shard, () -> rangeRepository.findByJobId(jobId)));
+        }
+        return rangesByShard;
+    }
+
+    private RepricingJobDTO toDTO(RepricingJob job, Map<Integer, List<RepricingJobRange>> rangesByShard) {
+        int totalRanges = 0;
+        int completedRanges = 0;
+        long productsUpdated = 0;
+        long totalCodes = 0;
+        long processedCodes = 0;
+        for (List<RepricingJobRange> ranges : rangesByShard.values()) {
+            for (RepricingJobRange range : ranges) {
+                long codes = (long) range.getToCode() - range.getFromCode() + 1;
+                totalRanges++;
+                totalCodes += codes;
+                productsUpdated += range.getProductsUpdated();
+                if (range.getStatus() == RepricingJobStatus.COMPLETED) {
+                    completedRanges++;
+                    processedCodes += codes;
+                } else {
+                    processedCodes += (long) range.getNextCode() - range.getFromCode();
+                }
+            }
+        }
+
+        Date end = job.getFinishedAt() != null ? job.getFinishedAt() : new Date();
+        long elapsedMillis = job.getStartedAt() != null ? end.getTime() - job.getStartedAt().getTime() : 0;
+
+        return RepricingJobDTO.builder()
+                .jobId(job.getJobId())
+                .ruleType(job.getRuleType())
+                .value(job.getRuleValue())
+                .active(job.getActiveFilter())
+                .minPrice(job.getMinPrice())
+                .maxPrice(job.getMaxPrice())
+                .status(job.getStatus())
+                .totalRanges(totalRanges)
+                .completedRanges(completedRanges)
+                .progressPercent(totalCodes > 0 ? Math.round(processedCodes * 1000.0 / totalCodes) / 10.0 : 100.0)
+                .productsUpdated(productsUpdated)
+                .productsPerSecond(elapsedMillis > 0 ? Math.round(productsUpdated * 10_000.0 / elapsedMillis) / 10.0 : null)
+                .errorMessage(job.getErrorMessage())
+                .startedAt(job.getStartedAt())
+                .finishedAt(job.getFinishedAt())
+                .build();
+    }
+
+    private List<Integer> shards() {
+        ShardRouter router = shardRouter.getIfAvailable();
+        return router == null ? List.of(0) : IntStream.range(0, router.getShardCount()).boxed().toList();
+    }
+
+    private <T> T onShard(int shard, Supplier<T> action) {
+        ShardRouter router = shardRouter.getIfAvailable();
+        return router == null ? action.get() : router.callOnShard(shard, action);
+    }
+}
@@ -0,0 +1,97 @@
+package com.linktic.ms_stockflow_products.service.impl;
+
+import com.linktic.ms_stockflow_products.controller.dto.ProductAvailabilityDTO;
+import com.linktic.ms_stockflow_products.controller.dto.ProductCreateDTO;
+import com.linktic.ms_stockflow_products.controller.dto.ProductDTO;
+import com.linktic.ms_stockflow_products.controller.dto.ProductUpdateDTO;
+import com.linktic.ms_stockflow_products.service.ProductService;
+import com.linktic.ms_stockflow_products.sharding.ShardRouter;
+import com.linktic.ms_stockflow_products.sharding.ShardedPages;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Servicio de productos en modo particionado. Selecciona el shard y delega en {@link ProductServiceImpl},
+ * cuya transacción se abre ya con la conexión del shard: las operaciones por código van a un solo
+ * shard y los listados consultan todos los shards en paralelo y combinan los resultados en orden.
+ */
+@Service
+@Primary
+@Slf4j
+@ConditionalOnProperty(prefix = "stockflow.sharding", name = "enabled", havingValue = "true")
+public class ShardedProductServiceImpl implements ProductService {
+
+    private final ProductService delegate;
+    private final ShardRouter shardRouter;
+
+    public ShardedProductServiceImpl(@Qualifier("productServiceImpl") ProductService delegate, ShardRouter shardRouter) {
+        this.delegate = delegate;
+        this.shardRouter = shardRouter;
+    }
+
+    @Override
+    public ProductDTO createProduct(ProductCreateDTO request) {
+        int shard = shardRouter.nextShardForInsert();
+        log.debug("Creando producto en el shard {}", shard);
+        return shardRouter.callOnShard(shard, () -> delegate.createProduct(request));
+    }
+
+    @Override
+    public ProductDTO getProductByCode(Integer productCode) {
+        return shardRouter.callOnShard(shardRouter.shardFor(productCode), () -> delegate.getProductByCode(productCode));
+    }
+
+    @Override
+    public ProductDTO updateProduct(Integer productCode, ProductUpdateDTO request) {
+        return shardRouter.callOnShard(shardRouter.shardFor(productCode),
+                () -> delegate.updateProduct(productCode, request));
+    }
+
+    @Override
+    public void deleteProduct(Integer productCode) {
+        shardRouter.runOnShard(shardRouter.shardFor(productCode), () -> delegate.deleteProduct(productCode));
+    }
+
+    @Override
+    public Page<ProductDTO> getAllProducts(Boolean active, Pageable pageable) {
+        Pageable shardPageable = ShardedPages.shardPageable(pageable);
+        List<Page<ProductDTO>> shardPages = shardRouter.scatter(shard -> delegate.getAllProducts(active, shardPageable));
+        return ShardedPages.merge(shardPages, pageable);
+    }
+
+    @Override
+    public ProductAvailabilityDTO getProductAvailability(Integer productCode) {
+        return shardRouter.callOnShard(shardRouter.shardFor(productCode),
+                () -> delegate.getProductAvailability(productCode));
+    }
+
+    @Override
+    public List<ProductAvailabilityDTO> getProductsAvailability(List<Integer> productCodes) {
+        // Una consulta por shard involucrado, solo con los códigos que le pertenecen
+        Map<Integer, List<Integer>> codesByShard = productCodes.stream()
+                .collect(Collectors.groupingBy(shardRouter::shardFor, TreeMap::new, Collectors.toList()));
+        List<ProductAvailabilityDTO> availability = new ArrayList<>(productCodes.size());
+        shardRouter.scatter(codesByShard.keySet(), shard -> delegate.getProductsAvailability(codesByShard.get(shard)))
+                .forEach(availability::addAll);
+        return availability;
+    }
+
+    @Override
+    public Page<ProductAvailabilityDTO> getAllProductsAvailability(Pageable pageable) {
+        Pageable shardPageable = ShardedPages.shardPageable(pageable);
+        List<Page<ProductAvailabilityDTO>> shardPages =
+                shardRouter.scatter(shard -> delegate.getAllProductsAvailability(shardPageable));
+        return ShardedPages.merge(shardPages, pageable);
+    }
+}
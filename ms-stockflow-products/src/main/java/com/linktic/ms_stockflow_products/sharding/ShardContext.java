@@ -0,0 +1,37 @@
+package com.linktic.ms_stockflow_products.sharding;
+
+import java.util.function.Supplier;
+
+/**
+ * Shard seleccionado para el hilo actual. {@link ShardRoutingDataSource} lo consulta al obtener una
+ * conexión, por lo que debe fijarse antes de abrir la transacción: dentro de una transacción ya
+ * iniciada la conexión no cambia de shard.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    /**
+     * @return shard del hilo actual, o {@code null} si no hay ninguno seleccionado (se usa el shard 0)
+     */
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    static <T> T callOn(int shard, Supplier<T> action) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
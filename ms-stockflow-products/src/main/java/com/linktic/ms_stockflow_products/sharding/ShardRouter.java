@@ -0,0 +1,115 @@
+package com.linktic.ms_stockflow_products.sharding;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Asigna productos a shards y ejecuta operaciones sobre uno o varios shards.
+ * <p>
+ * El producto con código {@code c} vive en el shard {@code (c - 1) % shardCount}. Cada shard genera
+ * sus códigos con una secuencia que empieza en {@code índice + 1} y avanza de {@code shardCount} en
+ * {@code shardCount}, así que un código nuevo siempre cae en el shard que lo creó.
+ */
+public class ShardRouter {
+
+    private final int shardCount;
+    private final ExecutorService executor;
+    private final AtomicInteger nextInsertShard = new AtomicInteger();
+
+    public ShardRouter(int shardCount, int scatterThreads) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Se requiere al menos un shard");
+        }
+        this.shardCount = shardCount;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, scatterThreads), runnable -> {
+            Thread thread = new Thread(runnable, "shard-scatter-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    /**
+     * @return shard que contiene el producto con el código indicado
+     */
+    public int shardFor(Integer productCode) {
+        return Math.floorMod(productCode - 1, shardCount);
+    }
+
+    /**
+     * @return shard donde se crea el siguiente producto (reparto round-robin)
+     */
+    public int nextShardForInsert() {
+        return Math.floorMod(nextInsertShard.getAndIncrement(), shardCount);
+    }
+
+    /**
+     * Ejecuta la acción en el hilo actual con el shard seleccionado
+     */
+    public <T> T callOnShard(int shard, Supplier<T> action) {
+        return ShardContext.callOn(shard, action);
+    }
+
+    public void runOnShard(int shard, Runnable action) {
+        ShardContext.callOn(shard, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Ejecuta la acción en paralelo sobre todos los shards
+     * @return resultados en orden de shard
+     */
+    public <T> List<T> scatter(IntFunction<T> action) {
+        return scatter(IntStream.range(0, shardCount).boxed().toList(), action);
+    }
+
+    /**
+     * Ejecuta la acción en paralelo sobre los shards indicados; si algún shard falla se propaga su excepción
+     * @return resultados en el orden de {@code shards}
+     */
+    public <T> List<T> scatter(Collection<Integer> shards, IntFunction<T> action) {
+        List<CompletableFuture<T>> futures = new ArrayList<>(shards.size());
+        for (Integer shard : shards) {
+            futures.add(CompletableFuture.supplyAsync(() -> callOnShard(shard, () -> action.apply(shard)), executor));
+        }
+
+        List<T> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<T> future : futures) {
+            results.add(join(future));
+        }
+        return results;
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.linktic.ms_stockflow_products.sharding;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * DataSource que entrega conexiones del shard indicado por {@link ShardContext}; sin shard
+ * seleccionado usa el shard 0 (arranque de JPA, validación del esquema, health check).
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.current();
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        for (DataSource dataSource : getResolvedDataSources().values()) {
+            if (dataSource instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.linktic.ms_stockflow_products.sharding;
+
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Paginación sobre varios shards: cada shard devuelve sus primeras {@code offset + size} filas con el
+ * mismo orden y se combinan con un merge de k vías, descartando las primeras {@code offset}.
+ * <p>
+ * El costo crece con la profundidad de la página (cada shard lee {@code offset + size} filas). Las
+ * columnas de texto se comparan por punto de código, que coincide con el orden de PostgreSQL solo
+ * con collation {@code C}; por eso los shards se crean con {@code --locale=C}.
+ */
+public final class ShardedPages {
+
+    // product_code es único en todo el catálogo: desempata filas iguales de distintos shards
+    private static final String TIE_BREAKER = "productCode";
+
+    private ShardedPages() {
+    }
+
+    /**
+     * @return página que se pide a cada shard para poder construir {@code pageable}
+     */
+    public static Pageable shardPageable(Pageable pageable) {
+        long rows = pageable.getOffset() + pageable.getPageSize();
+        return PageRequest.of(0, (int) Math.min(Integer.MAX_VALUE, rows), withTieBreaker(pageable.getSort()));
+    }
+
+    /**
+     * Combina las páginas de cada shard (obtenidas con {@link #shardPageable}) en la página pedida
+     */
+    public static <T> Page<T> merge(List<Page<T>> shardPages, Pageable pageable) {
+        Comparator<T> comparator = comparator(withTieBreaker(pageable.getSort()));
+        PriorityQueue<Cursor<T>> heads = new PriorityQueue<>(Math.max(1, shardPages.size()),
+                (a, b) -> comparator.compare(a.head(), b.head()));
+
+        long total = 0;
+        for (Page<T> page : shardPages) {
+            total += page.getTotalElements();
+            if (page.hasContent()) {
+                heads.add(new Cursor<>(page.getContent()));
+            }
+        }
+
+        long skip = pageable.getOffset();
+        List<T> content = new ArrayList<>(pageable.getPageSize());
+        while (!heads.isEmpty() && content.size() < pageable.getPageSize()) {
+            Cursor<T> cursor = heads.poll();
+            T next = cursor.head();
+            if (skip > 0) {
+                skip--;
+            } else {
+                content.add(next);
+            }
+            if (cursor.advance()) {
+                heads.add(cursor);
+            }
+        }
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    static Sort withTieBreaker(Sort sort) {
+        return sort.getOrderFor(TIE_BREAKER) != null ? sort : sort.and(Sort.by(TIE_BREAKER));
+    }
+
+    static <T> Comparator<T> comparator(Sort sort) {
+        Comparator<T> comparator = (a, b) -> 0;
+        for (Sort.Order order : sort) {
+            comparator = comparator.thenComparing((a, b) ->
+                    compareValues(propertyOf(a, order.getProperty()), propertyOf(b, order.getProperty()), order));
+        }
+        return comparator;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compareValues(Object a, Object b, Sort.Order order) {
+        if (a == null || b == null) {
+            if (a == b) {
+                return 0;
+            }
+            // PostgreSQL trata el nulo como el mayor valor: al final en ASC y al principio en DESC
+            boolean nullsFirst = order.getNullHandling() == Sort.NullHandling.NULLS_FIRST
+                    || (order.getNullHandling() == Sort.NullHandling.NATIVE && order.isDescending());
+            return (a == null) == nullsFirst ? -1 : 1;
+        }
+
+        int result = a instanceof String text
+                ? compareCodePoints(text, (String) b, order.isIgnoreCase())
+                : ((Comparable<Object>) a).compareTo(b);
+        return order.isDescending() ? -result : result;
+    }
+
+    /**
+     * Compara por punto de código, el mismo orden que los bytes UTF-8 de la collation {@code C}.
+     * {@link String#compareTo} compara unidades UTF-16 y ordena los caracteres fuera del plano básico
+     * (pares sustitutos, {@code U+D800}-{@code U+DFFF}) antes que los de {@code U+E000}-{@code U+FFFF}
+     */
+    static int compareCodePoints(String a, String b, boolean ignoreCase) {
+        int i = 0;
+        int j = 0;
+        while (i < a.length() && j < b.length()) {
+            int x = a.codePointAt(i);
+            int y = b.codePointAt(j);
+            i += Character.charCount(x);
+            j += Character.charCount(y);
+            if (ignoreCase) {
+                x = Character.toLowerCase(x);
+                y = Character.toLowerCase(y);
+            }
+            if (x != y) {
+                return Integer.compare(x, y);
+            }
+        }
+        return Boolean.compare(i < a.length(), j < b.length());
+    }
+
+    private static Object propertyOf(Object bean, String property) {
+        return PropertyAccessorFactory.forBeanPropertyAccess(bean).getPropertyValue(property);
+    }
+
+    private static final class Cursor<T> {
+        private final List<T> rows;
+        private int position;
+
+        Cursor(List<T> rows) {
+            this.rows = rows;
+        }
+
+        T head() {
+            return rows.get(position);
+        }
+
+        boolean advance() {
+            return ++position < rows.size();
+        }
+    }
+}
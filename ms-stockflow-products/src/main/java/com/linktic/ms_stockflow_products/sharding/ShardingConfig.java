@@ -0,0 +1,59 @@
+package com.linktic.ms_stockflow_products.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Modo particionado: reemplaza el DataSource de {@code spring.datasource} por uno que enruta cada
+ * operación al shard seleccionado en {@link ShardContext}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "stockflow.sharding", name = "enabled", havingValue = "true")
+@Slf4j
+public class ShardingConfig {
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardingProperties properties) {
+        List<ShardingProperties.Shard> shards = properties.getShards();
+        if (shards.isEmpty()) {
+            throw new IllegalStateException("stockflow.sharding.enabled requiere al menos un shard en stockflow.sharding.shards");
+        }
+
+        Map<Object, Object> targets = new HashMap<>();
+        for (int index = 0; index < shards.size(); index++) {
+            ShardingProperties.Shard shard = shards.get(index);
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName("org.postgresql.Driver")
+                    .url(shard.getUrl())
+                    .username(shard.getUsername())
+                    .password(shard.getPassword())
+                    .build();
+            dataSource.setPoolName("shard-" + index);
+            dataSource.setMaximumPoolSize(shard.getMaxPoolSize());
+            targets.put(index, dataSource);
+            log.info("Shard {} configurado: {}", index, shard.getUrl());
+        }
+
+        ShardRoutingDataSource routingDataSource = new ShardRoutingDataSource();
+        routingDataSource.setTargetDataSources(targets);
+        routingDataSource.setDefaultTargetDataSource(targets.get(0));
+        return routingDataSource;
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ShardRouter shardRouter(ShardingProperties properties) {
+        return new ShardRouter(properties.getShards().size(), properties.getScatterThreads());
+    }
+}
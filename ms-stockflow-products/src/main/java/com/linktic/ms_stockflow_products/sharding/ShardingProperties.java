@@ -0,0 +1,35 @@
+package com.linktic.ms_stockflow_products.sharding;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "stockflow.sharding")
+public class ShardingProperties {
+
+    /**
+     * Distribuye la tabla products entre varias bases de datos PostgreSQL
+     */
+    private boolean enabled = false;
+
+    /**
+     * Hilos para consultar los shards en paralelo (listados y estadísticas)
+     */
+    private int scatterThreads = 16;
+
+    /**
+     * Shards en orden: el producto con código {@code c} vive en el shard {@code (c - 1) % shards.size()}
+     */
+    private List<Shard> shards = new ArrayList<>();
+
+    @Data
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+        private int maxPoolSize = 10;
+    }
+}
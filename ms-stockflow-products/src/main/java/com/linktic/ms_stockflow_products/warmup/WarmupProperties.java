@@ -0,0 +1,42 @@
+package com.linktic.ms_stockflow_products.warmup;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "stockflow.warmup")
+public class WarmupProperties {
+
+    /**
+     * Ejecuta el calentamiento antes de marcar el servicio como listo (readiness)
+     */
+    private boolean enabled = true;
+
+    /**
+     * Iteraciones sobre la capa de servicio, mapeo y serialización
+     */
+    private int iterations = 2000;
+
+    /**
+     * Peticiones HTTP locales para calentar Tomcat, filtros, DispatcherServlet y Jackson
+     */
+    private int httpRequests = 500;
+
+    /**
+     * Códigos con los que se recorren las rutas; si está vacío se usan los primeros {@code sampleProducts}
+     * códigos del catálogo. El servicio no tiene caché de productos, así que no hace falta que sean los más
+     * consultados: basta con que existan
+     */
+    private List<Integer> productCodes = new ArrayList<>();
+
+    private int sampleProducts = 50;
+
+    /**
+     * Tiempo máximo del calentamiento; al vencer el servicio pasa a listo igualmente
+     */
+    private Duration timeout = Duration.ofSeconds(60);
+}
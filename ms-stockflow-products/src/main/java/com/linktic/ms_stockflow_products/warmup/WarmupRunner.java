@@ -0,0 +1,172 @@
+package com.linktic.ms_stockflow_products.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.linktic.ms_stockflow_products.controller.dto.ProductCreateDTO;
+import com.linktic.ms_stockflow_products.controller.dto.ProductDTO;
+import com.linktic.ms_stockflow_products.domain.builder.ObjectBuilder;
+import com.linktic.ms_stockflow_products.domain.entity.Product;
+import com.linktic.ms_stockflow_products.domain.repository.ArchivedProductRepository;
+import com.linktic.ms_stockflow_products.domain.repository.ProductRepository;
+import com.linktic.ms_stockflow_products.exception.ProductNotFoundException;
+import com.linktic.ms_stockflow_products.service.CatalogStatsService;
+import com.linktic.ms_stockflow_products.service.ProductService;
+import com.linktic.ms_stockflow_products.sharding.ShardRouter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Calienta el servicio antes de que reciba tráfico: metamodelo de Hibernate, mapas de tipos de ModelMapper,
+ * serializadores de Jackson, la ruta de error 404 y la compilación JIT de las rutas calientes.
+ * <p>
+ * Spring Boot publica {@code ReadinessState.ACCEPTING_TRAFFIC} después de ejecutar los
+ * {@link ApplicationRunner}, así que mientras dura el calentamiento {@code /actuator/health/readiness}
+ * responde {@code OUT_OF_SERVICE} y el balanceador no envía peticiones a la instancia.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(prefix = "stockflow.warmup", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class WarmupRunner implements ApplicationRunner {
+
+    // Ningún producto tiene código negativo. El filtro de existencia lo descarta sin consultar la base de datos,
+    // así que la búsqueda fallida en las tablas se calienta llamando directamente a los repositorios
+    private static final int MISSING_PRODUCT_CODE = -1;
+
+    private final WarmupProperties properties;
+    private final ProductService productService;
+    private final ProductRepository productRepository;
+    private final ArchivedProductRepository archivedProductRepository;
+    private final CatalogStatsService catalogStatsService;
+    private final ObjectBuilder objectBuilder;
+    private final ObjectMapper objectMapper;
+    private final Environment environment;
+    private final ObjectProvider<ShardRouter> shardRouter;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        long deadline = start + properties.getTimeout().toNanos();
+        log.info("Iniciando calentamiento del servicio");
+
+        try {
+            List<Integer> productCodes = sampleProductCodes();
+            if (productCodes.isEmpty()) {
+                log.info("Catálogo vacío, se omite el calentamiento");
+                return;
+            }
+
+            int iterations = warmUpServiceLayer(productCodes, deadline);
+            int requests = warmUpHttpLayer(productCodes, deadline);
+
+            log.info("Calentamiento completado en {} ms: {} iteraciones de servicio, {} peticiones HTTP, {} productos de muestra",
+                    Duration.ofNanos(System.nanoTime() - start).toMillis(), iterations, requests, productCodes.size());
+        } catch (Exception e) {
+            // Un calentamiento fallido no debe impedir que el servicio arranque
+            log.warn("Calentamiento interrumpido: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Códigos configurados o, si no hay, los primeros del catálogo por código. No es una señal de popularidad:
+     * solo se necesitan productos existentes para recorrer las rutas de lectura. Con sharding, la muestra se
+     * reparte entre todos los shards para calentar el pool de conexiones de cada uno
+     */
+    private List<Integer> sampleProductCodes() {
+        if (!properties.getProductCodes().isEmpty()) {
+            return properties.getProductCodes();
+        }
+        ShardRouter router = shardRouter.getIfAvailable();
+        if (router == null) {
+            return firstProductCodes(properties.getSampleProducts());
+        }
+        int perShard = Math.max(1, properties.getSampleProducts() / router.getShardCount());
+        List<Integer> productCodes = new ArrayList<>();
+        router.scatter(shard -> firstProductCodes(perShard)).forEach(productCodes::addAll);
+        return productCodes;
+    }
+
+    private List<Integer> firstProductCodes(int limit) {
+        List<Integer> productCodes = new ArrayList<>();
+        productRepository.findAll(PageRequest.of(0, limit, Sort.by("productCode")))
+                .forEach(product -> productCodes.add(product.getProductCode()));
+        return productCodes;
+    }
+
+    private int warmUpServiceLayer(List<Integer> productCodes, long deadline) throws Exception {
+        ProductCreateDTO createRequest = ProductCreateDTO.builder()
+                .name("Producto de calentamiento")
+                .description("No se persiste")
+                .price(1000)
+                .active(true)
+                .build();
+
+        int iteration = 0;
+        for (; iteration < properties.getIterations() && System.nanoTime() < deadline; iteration++) {
+            Integer productCode = productCodes.get(iteration % productCodes.size());
+
+            ProductDTO product = productService.getProductByCode(productCode);
+            objectMapper.writeValueAsBytes(product);
+            objectMapper.writeValueAsBytes(productService.getProductAvailability(productCode));
+            objectBuilder.map(createRequest, Product.class);
+
+            try {
+                productService.getProductByCode(MISSING_PRODUCT_CODE);
+            } catch (ProductNotFoundException expected) {
+                // Ruta de error esperada
+            }
+            // Búsqueda fallida en la tabla caliente y en el archivo, sin contarla como falso positivo del filtro
+            productRepository.findByProductCode(MISSING_PRODUCT_CODE);
+            archivedProductRepository.findByProductCode(MISSING_PRODUCT_CODE);
+            productRepository.findAvailabilityByProductCode(MISSING_PRODUCT_CODE);
+            archivedProductRepository.findAvailabilityByProductCode(MISSING_PRODUCT_CODE);
+        }
+
+        objectMapper.writeValueAsBytes(productService.getAllProducts(null, PageRequest.of(0, 10, Sort.by("productCode"))));
+        objectMapper.writeValueAsBytes(catalogStatsService.getStats());
+        return iteration;
+    }
+
+    private int warmUpHttpLayer(List<Integer> productCodes, long deadline) throws Exception {
+        Integer port = environment.getProperty("local.server.port", Integer.class);
+        if (port == null || properties.getHttpRequests() <= 0) {
+            return 0;
+        }
+
+        String baseUrl = "http://localhost:" + port + "/api/products";
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(2))
+                .build();
+
+        int request = 0;
+        for (; request < properties.getHttpRequests() && System.nanoTime() < deadline; request++) {
+            Integer productCode = productCodes.get(request % productCodes.size());
+            String path = switch (request % 4) {
+                case 0, 1 -> "/" + productCode;
+                case 2 -> "/" + productCode + "/availability";
+                default -> "/" + MISSING_PRODUCT_CODE;
+            };
+            client.send(HttpRequest.newBuilder(URI.create(baseUrl + path))
+                            .timeout(Duration.ofSeconds(5))
+                            .GET()
+                            .build(),
+                    HttpResponse.BodyHandlers.discarding());
+        }
+        return request;
+    }
+}
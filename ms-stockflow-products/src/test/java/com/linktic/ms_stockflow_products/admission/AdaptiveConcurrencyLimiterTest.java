@@ -0,0 +1,97 @@
+package com.linktic.ms_stockflow_products.admission;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Prueba de sobrecarga simulada: una base de datos con capacidad fija cuya latencia crece de forma lineal
+ * cuando la concurrencia la supera, recibiendo siempre más peticiones de las que el límite admite.
+ */
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final int WINDOW_SIZE = 20;
+
+    @Test
+    void goodputStaysStableWhenDatabaseIsSlowedDown() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                20, 2, 500, WINDOW_SIZE, 100, 1.5, 0.2);
+
+        // Base de datos sana: 40 consultas concurrentes a 10 ms
+        Phase healthy = simulate(limiter, 40, 10_000_000L, 600);
+        assertTrue(healthy.goodputRatio() > 0.9, "goodput sano: " + healthy.goodputRatio());
+        assertTrue(healthy.avgLatencyRatio() < 2.5, "latencia sana: " + healthy.avgLatencyRatio());
+
+        // Base de datos ralentizada: 10 consultas concurrentes a 50 ms
+        Phase degraded = simulate(limiter, 10, 50_000_000L, 600);
+        assertTrue(degraded.goodputRatio() > 0.75, "goodput degradado: " + degraded.goodputRatio());
+        assertTrue(degraded.avgLatencyRatio() < 2.5, "latencia degradada: " + degraded.avgLatencyRatio());
+        assertTrue(limiter.getLimit() < 40, "el límite debe reducirse: " + limiter.getLimit());
+    }
+
+    @Test
+    void rejectsWhenLimitIsReached() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                2, 1, 10, WINDOW_SIZE, 100, 1.5, 0.2);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+
+        limiter.release(System.nanoTime());
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void resetDiscardsWarmupLatency() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                10, 1, 100, WINDOW_SIZE, 100, 1.5, 0.2);
+
+        // Calentamiento: peticiones locales de 1 ms
+        feed(limiter, 1_000_000L, 10);
+        limiter.reset();
+        assertEquals(10, limiter.getLimit());
+
+        // Tráfico real a 20 ms: sin el reinicio la latencia del calentamiento reduciría el límite
+        feed(limiter, 20_000_000L, 10);
+        assertTrue(limiter.getLimit() >= 10, "límite tras el calentamiento: " + limiter.getLimit());
+    }
+
+    private void feed(AdaptiveConcurrencyLimiter limiter, long rttNanos, int windows) {
+        for (int w = 0; w < windows; w++) {
+            int concurrency = limiter.getLimit();
+            for (int i = 0; i < WINDOW_SIZE; i++) {
+                limiter.onSample(rttNanos, concurrency);
+            }
+        }
+    }
+
+    /**
+     * Ejecuta {@code windows} ventanas con la concurrencia igual al límite vigente y mide, sobre la segunda
+     * mitad de la fase, el goodput y la latencia relativos al óptimo de la base de datos.
+     */
+    private Phase simulate(AdaptiveConcurrencyLimiter limiter, int capacity, long baseRttNanos, int windows) {
+        double goodput = 0;
+        double latency = 0;
+        int measured = 0;
+
+        for (int w = 0; w < windows; w++) {
+            int concurrency = limiter.getLimit();
+            long rtt = (long) (baseRttNanos * Math.max(1.0, (double) concurrency / capacity));
+            for (int i = 0; i < WINDOW_SIZE; i++) {
+                limiter.onSample(rtt, concurrency);
+            }
+            if (w >= windows / 2) {
+                goodput += (double) Math.min(concurrency, capacity) / capacity;
+                latency += (double) rtt / baseRttNanos;
+                measured++;
+            }
+        }
+        return new Phase(goodput / measured, latency / measured);
+    }
+
+    private record Phase(double goodputRatio, double avgLatencyRatio) {
+    }
+}
@@ -0,0 +1,115 @@
+package com.linktic.ms_stockflow_products.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Prueba del filtro con una base de datos detenida: las peticiones que ocupan todos los permisos de un
+ * compartimento quedan bloqueadas en la cadena, y las siguientes deben rechazarse con 503 sin llegar a ella.
+ */
+class AdmissionControlFilterTest {
+
+    private static final int LIMIT = 4;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Map<Bulkhead, AdaptiveConcurrencyLimiter> limiters = new EnumMap<>(Bulkhead.class);
+    private final Map<Bulkhead, Counter> rejections = new EnumMap<>(Bulkhead.class);
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private final AdmissionControlFilter filter;
+
+    AdmissionControlFilterTest() {
+        for (Bulkhead bulkhead : Bulkhead.values()) {
+            limiters.put(bulkhead, new AdaptiveConcurrencyLimiter(LIMIT, 1, LIMIT, 20, 100, 1.5, 0.2));
+            rejections.put(bulkhead, meterRegistry.counter("rejected", "bulkhead", bulkhead.tag()));
+        }
+        filter = new AdmissionControlFilter(limiters, rejections, new ObjectMapper(), 2, false);
+    }
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void rejectsWith503WhileDownstreamIsStalled() throws Exception {
+        CountDownLatch stalled = new CountDownLatch(LIMIT);
+        CountDownLatch database = new CountDownLatch(1);
+        FilterChain slowChain = (request, response) -> {
+            stalled.countDown();
+            try {
+                database.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        List<Future<MockHttpServletResponse>> inFlight = new ArrayList<>();
+        for (int i = 0; i < LIMIT; i++) {
+            inFlight.add(executor.submit(() -> execute("GET", "/api/products/1", slowChain)));
+        }
+        assertTrue(stalled.await(5, TimeUnit.SECONDS), "las peticiones deben llegar a la cadena");
+
+        int[] reachedChain = new int[1];
+        FilterChain countingChain = (request, response) -> reachedChain[0]++;
+        for (int i = 0; i < 10; i++) {
+            MockHttpServletResponse rejected = execute("GET", "/api/products/2", countingChain);
+            assertEquals(503, rejected.getStatus());
+            assertEquals("2", rejected.getHeader(HttpHeaders.RETRY_AFTER));
+            assertTrue(rejected.getContentAsString().contains("\"status\":503"), rejected.getContentAsString());
+        }
+        assertEquals(0, reachedChain[0], "las peticiones rechazadas no deben llegar a la cadena");
+        assertEquals(10, rejections.get(Bulkhead.READ).count());
+
+        // Los demás compartimentos no se ven afectados por la saturación de las lecturas
+        assertEquals(200, execute("DELETE", "/api/products/3", countingChain).getStatus());
+        assertEquals(1, reachedChain[0]);
+
+        database.countDown();
+        for (Future<MockHttpServletResponse> response : inFlight) {
+            assertEquals(200, response.get(5, TimeUnit.SECONDS).getStatus());
+        }
+        assertEquals(0, limiters.get(Bulkhead.READ).getInFlight());
+        assertEquals(200, execute("GET", "/api/products/2", countingChain).getStatus());
+    }
+
+    @Test
+    void classifiesBulkAndCoalescedPaths() {
+        assertEquals(Bulkhead.READ, Bulkhead.classify("GET", "/api/products/10", false));
+        assertEquals(Bulkhead.BULK, Bulkhead.classify("GET", "/api/products", false));
+        assertEquals(Bulkhead.BULK, Bulkhead.classify("GET", "/api/products/availability", false));
+        assertEquals(Bulkhead.READ, Bulkhead.classify("GET", "/api/products/10/availability", false));
+        assertEquals(Bulkhead.BULK, Bulkhead.classify("POST", "/api/products/repricing-jobs", false));
+        assertEquals(Bulkhead.WRITE, Bulkhead.classify("POST", "/api/products", false));
+        assertEquals(Bulkhead.WRITE, Bulkhead.classify("PUT", "/api/products/10", false));
+        assertEquals(Bulkhead.COALESCED, Bulkhead.classify("PUT", "/api/products/10", true));
+        assertEquals(Bulkhead.WRITE, Bulkhead.classify("DELETE", "/api/products/10", true));
+    }
+
+    private MockHttpServletResponse execute(String method, String uri, FilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
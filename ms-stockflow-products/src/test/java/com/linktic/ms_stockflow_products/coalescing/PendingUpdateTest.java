@@ -0,0 +1,51 @@
+package com.linktic.ms_stockflow_products.coalescing;
+
+import com.linktic.ms_stockflow_products.controller.dto.ProductDTO;
+import com.linktic.ms_stockflow_products.controller.dto.ProductUpdateDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Combinación campo a campo: gana el último valor recibido, y los cambios de un intento fallido solo
+ * completan los campos que no trae una actualización posterior.
+ */
+class PendingUpdateTest {
+
+    @Test
+    void mergeKeepsTheLastValueOfEachField() {
+        PendingUpdate entry = new PendingUpdate(1);
+        entry.merge(ProductUpdateDTO.builder().name("A").price(100).build(), null);
+        entry.merge(ProductUpdateDTO.builder().price(200).active(false).build(), new CompletableFuture<>());
+        entry.merge(ProductUpdateDTO.builder().active(true).build(), null);
+
+        ProductUpdateDTO merged = entry.toRequest();
+        assertEquals("A", merged.getName());
+        assertNull(merged.getDescription());
+        assertEquals(200, merged.getPrice());
+        assertEquals(true, merged.getActive());
+        assertEquals(3, entry.updates);
+        assertEquals(1, entry.waiters.size());
+    }
+
+    @Test
+    void failedAttemptMergesUnderNewerChanges() {
+        CompletableFuture<ProductDTO> olderWaiter = new CompletableFuture<>();
+        PendingUpdate failed = new PendingUpdate(1);
+        failed.merge(ProductUpdateDTO.builder().name("A").price(100).build(), olderWaiter);
+        failed.attempts = 1;
+
+        PendingUpdate newer = new PendingUpdate(1);
+        newer.merge(ProductUpdateDTO.builder().price(200).build(), null);
+        newer.mergeOlder(failed);
+
+        assertEquals("A", newer.name);
+        assertEquals(200, newer.price);
+        assertEquals(2, newer.updates);
+        assertEquals(1, newer.attempts);
+        assertEquals(olderWaiter, newer.waiters.get(0));
+    }
+}
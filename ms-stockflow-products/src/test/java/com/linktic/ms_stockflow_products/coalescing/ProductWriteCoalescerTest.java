@@ -0,0 +1,296 @@
+package com.linktic.ms_stockflow_products.coalescing;
+
+import com.linktic.ms_stockflow_products.controller.dto.ProductDTO;
+import com.linktic.ms_stockflow_products.controller.dto.ProductUpdateDTO;
+import com.linktic.ms_stockflow_products.domain.builder.ObjectBuilder;
+import com.linktic.ms_stockflow_products.domain.entity.Product;
+import com.linktic.ms_stockflow_products.domain.repository.ProductRepository;
+import com.linktic.ms_stockflow_products.domain.repository.projection.ProductStateRow;
+import com.linktic.ms_stockflow_products.exception.ProductNotFoundException;
+import com.linktic.ms_stockflow_products.existence.ProductExistenceFilter;
+import com.linktic.ms_stockflow_products.service.CatalogStatsService;
+import com.linktic.ms_stockflow_products.service.ProductService;
+import com.linktic.ms_stockflow_products.sharding.ShardRouter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Escritura agrupada sobre una tabla simulada: las ventanas se escriben a mano con {@code flushPending}
+ * (la ventana programada es de una hora) y {@code applyMergedUpdates} puede fallar a voluntad.
+ */
+class ProductWriteCoalescerTest {
+
+    private static final int INVALID_CODE = 3;
+    // Código que el filtro de existencia descarta
+    private static final int UNKNOWN_CODE = 404;
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final ProductService productService = mock(ProductService.class);
+    private final ProductExistenceFilter existenceFilter = mock(ProductExistenceFilter.class);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final WriteCoalescingProperties properties = new WriteCoalescingProperties();
+    private final Map<Integer, Product> table = new ConcurrentHashMap<>();
+    // Fallos transitorios pendientes por producto
+    private final Map<Integer, Integer> transientFailures = new ConcurrentHashMap<>();
+    private volatile Runnable duringWrite = () -> { };
+
+    private ProductWriteCoalescer coalescer;
+
+    @AfterEach
+    void shutdown() throws InterruptedException {
+        coalescer.shutdown();
+    }
+
+    @Test
+    void oneInvalidRowDoesNotFailTheRestOfTheWindow() {
+        start();
+        CompletableFuture<ProductDTO> first = updateAsync(1, ProductUpdateDTO.builder().price(100).build());
+        CompletableFuture<ProductDTO> second = updateAsync(2, ProductUpdateDTO.builder().price(200).build());
+        CompletableFuture<ProductDTO> invalid = updateAsync(INVALID_CODE, ProductUpdateDTO.builder().price(300).build());
+        awaitPending(3);
+
+        coalescer.flushPending();
+
+        assertEquals(100, first.join().getPrice());
+        assertEquals(200, second.join().getPrice());
+        CompletionException error = assertThrows(CompletionException.class, invalid::join);
+        assertTrue(error.getCause() instanceof DataIntegrityViolationException, String.valueOf(error.getCause()));
+        assertEquals(0, meterRegistry.counter("stockflow.coalescing.retried").count());
+    }
+
+    @Test
+    void failedWriteIsRetriedUnderNewerChanges() {
+        start();
+        transientFailures.put(1, 1);
+        coalescer.submit(1, ProductUpdateDTO.builder().name("A").price(100).build());
+        // Llega mientras se escribe la primera ventana, que falla
+        duringWrite = () -> {
+            duringWrite = () -> { };
+            coalescer.submit(1, ProductUpdateDTO.builder().price(200).build());
+        };
+
+        coalescer.flushPending();
+        coalescer.flushPending();
+
+        Product written = table.get(1);
+        assertEquals("A", written.getName());
+        assertEquals(200, written.getPrice());
+        assertEquals(1, meterRegistry.counter("stockflow.coalescing.retried").count());
+        assertEquals(0, meterRegistry.counter("stockflow.coalescing.discarded").count());
+    }
+
+    @Test
+    void asyncUpdatesAreDiscardedAfterTheLastAttempt() {
+        properties.setMaxAttempts(2);
+        start();
+        transientFailures.put(1, Integer.MAX_VALUE);
+        coalescer.submit(1, ProductUpdateDTO.builder().price(100).build());
+        coalescer.submit(1, ProductUpdateDTO.builder().price(200).build());
+
+        coalescer.flushPending();
+        coalescer.flushPending();
+        coalescer.flushPending();
+
+        assertEquals(1, meterRegistry.counter("stockflow.coalescing.retried").count());
+        assertEquals(2, meterRegistry.counter("stockflow.coalescing.discarded").count());
+    }
+
+    @Test
+    void asyncUpdatesOfUnknownProductsAreCountedAsDiscarded() {
+        start();
+        when(productService.updateProduct(eq(99), any())).thenThrow(new ProductNotFoundException(99));
+        coalescer.submit(99, ProductUpdateDTO.builder().price(100).build());
+        coalescer.submit(99, ProductUpdateDTO.builder().active(false).build());
+
+        coalescer.flushPending();
+
+        assertEquals(2, meterRegistry.counter("stockflow.coalescing.discarded").count());
+        assertEquals(0, meterRegistry.counter("stockflow.coalescing.retried").count());
+    }
+
+    @Test
+    void codesRejectedByTheExistenceFilterAreNotFoundWithoutQueueing() {
+        start();
+        ProductUpdateDTO request = ProductUpdateDTO.builder().price(100).build();
+
+        assertThrows(ProductNotFoundException.class, () -> coalescer.submit(UNKNOWN_CODE, request));
+        assertThrows(ProductNotFoundException.class, () -> coalescer.update(UNKNOWN_CODE, request));
+
+        assertEquals(0, meterRegistry.get("stockflow.coalescing.pending").gauge().value());
+        assertEquals(0, meterRegistry.counter("stockflow.coalescing.accepted", "mode", "sync").count());
+        assertEquals(0, meterRegistry.counter("stockflow.coalescing.accepted", "mode", "async").count());
+        verify(productService, never()).updateProduct(any(), any());
+    }
+
+    @Test
+    void updatesBeyondMaxPendingAreWrittenDirectly() {
+        properties.setMaxPending(1);
+        start();
+        ProductUpdateDTO request = ProductUpdateDTO.builder().price(100).build();
+
+        coalescer.submit(1, request);
+        coalescer.submit(1, request);
+        verify(productService, never()).updateProduct(any(), any());
+
+        coalescer.submit(2, request);
+        verify(productService).updateProduct(2, request);
+        assertEquals(1, meterRegistry.counter("stockflow.coalescing.bypassed").count());
+    }
+
+    @Test
+    void flushWaitsForTheWriteInFlight() throws Exception {
+        start();
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch resume = new CountDownLatch(1);
+        duringWrite = () -> {
+            writing.countDown();
+            await(resume);
+        };
+        coalescer.submit(1, ProductUpdateDTO.builder().active(true).build());
+
+        CompletableFuture<Void> window = CompletableFuture.runAsync(coalescer::flushPending);
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        duringWrite = () -> { };
+        CompletableFuture<Void> flush = CompletableFuture.runAsync(() -> coalescer.flush(1));
+
+        // Sin esperar, la eliminación posterior se escribiría antes que active=true
+        Thread.sleep(200);
+        assertFalse(flush.isDone());
+
+        resume.countDown();
+        flush.get(5, TimeUnit.SECONDS);
+        window.get(5, TimeUnit.SECONDS);
+        assertTrue(table.get(1).getActive());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void start() {
+        properties.setWindow(Duration.ofHours(1));
+        for (int code = 1; code <= 5; code++) {
+            table.put(code, Product.builder().productCode(code).name("P" + code).price(10).active(false).build());
+        }
+
+        when(productRepository.lockForUpdate(any())).thenAnswer(invocation -> {
+            Collection<Integer> codes = invocation.getArgument(0);
+            return codes.stream().filter(table::containsKey).map(code -> state(table.get(code))).toList();
+        });
+        when(productRepository.applyMergedUpdates(any(), any(), any(), any(), any())).thenAnswer(invocation -> {
+            duringWrite.run();
+            Integer[] codes = invocation.getArgument(0);
+            List<Integer> codeList = Arrays.asList(codes);
+            if (codeList.contains(INVALID_CODE)) {
+                throw new DataIntegrityViolationException("precio fuera de rango");
+            }
+            for (Integer code : codes) {
+                if (transientFailures.computeIfPresent(code, (key, left) -> left - 1) != null) {
+                    transientFailures.remove(code, 0);
+                    throw new QueryTimeoutException("tiempo de espera agotado");
+                }
+            }
+            String[] names = invocation.getArgument(1);
+            String[] descriptions = invocation.getArgument(2);
+            Integer[] prices = invocation.getArgument(3);
+            Boolean[] actives = invocation.getArgument(4);
+            List<Product> updated = new ArrayList<>();
+            for (int i = 0; i < codes.length; i++) {
+                Product current = table.get(codes[i]);
+                Product product = current.toBuilder()
+                        .name(names[i] != null ? names[i] : current.getName())
+                        .description(descriptions[i] != null ? descriptions[i] : current.getDescription())
+                        .price(prices[i] != null ? prices[i] : current.getPrice())
+                        .active(actives[i] != null ? actives[i] : current.getActive())
+                        .build();
+                table.put(product.getProductCode(), product);
+                updated.add(product);
+            }
+            return updated;
+        });
+
+        ObjectBuilder objectBuilder = mock(ObjectBuilder.class);
+        when(objectBuilder.map(any(Product.class), eq(ProductDTO.class))).thenAnswer(invocation -> {
+            Product product = invocation.getArgument(0);
+            return ProductDTO.builder()
+                    .productCode(product.getProductCode())
+                    .name(product.getName())
+                    .price(product.getPrice())
+                    .active(product.getActive())
+                    .build();
+        });
+        ObjectProvider<ShardRouter> shardRouter = mock(ObjectProvider.class);
+        when(existenceFilter.mightExist(anyInt()))
+                .thenAnswer(invocation -> !invocation.getArgument(0).equals(UNKNOWN_CODE));
+
+        coalescer = new ProductWriteCoalescer(productRepository, productService, mock(CatalogStatsService.class),
+                existenceFilter, objectBuilder, shardRouter, properties, mock(PlatformTransactionManager.class),
+                meterRegistry);
+    }
+
+    private CompletableFuture<ProductDTO> updateAsync(Integer productCode, ProductUpdateDTO request) {
+        return CompletableFuture.supplyAsync(() -> coalescer.update(productCode, request));
+    }
+
+    private void awaitPending(int products) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("stockflow.coalescing.pending").gauge().value() < products) {
+            assertTrue(System.nanoTime() < deadline, "las actualizaciones no llegaron a la ventana");
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ProductStateRow state(Product product) {
+        return new ProductStateRow() {
+            @Override
+            public Integer getProductCode() {
+                return product.getProductCode();
+            }
+
+            @Override
+            public Integer getPrice() {
+                return product.getPrice();
+            }
+
+            @Override
+            public Boolean getActive() {
+                return product.getActive();
+            }
+        };
+    }
+}
@@ -0,0 +1,64 @@
+package com.linktic.ms_stockflow_products.existence;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Medición del filtro con un catálogo de 10M de códigos consecutivos, como los que genera la secuencia de
+ * product_code: ningún código agregado puede descartarse y la tasa de falsos positivos y la memoria deben
+ * quedar cerca de lo configurado.
+ */
+class BloomFilterTest {
+
+    private static final int CATALOG_SIZE = 10_000_000;
+    private static final int ABSENT_SAMPLE = 2_000_000;
+
+    // Unos 9,6 bits por código con p = 1 % (11,4 MiB) y 14,4 con p = 0,1 % (17,1 MiB)
+    @ParameterizedTest
+    @CsvSource({"0.01, 12500000", "0.001, 18500000"})
+    void staysWithinConfiguredFalsePositiveRateAndMemoryAtTenMillionCodes(double falsePositiveRate, long maxMemoryBytes) {
+        BloomFilter filter = new BloomFilter(CATALOG_SIZE, falsePositiveRate);
+        for (int code = 1; code <= CATALOG_SIZE; code++) {
+            filter.put(code);
+        }
+
+        for (int code = 1; code <= CATALOG_SIZE; code++) {
+            if (!filter.mightContain(code)) {
+                throw new AssertionError("falso negativo para el código " + code);
+            }
+        }
+
+        int falsePositives = 0;
+        for (int code = CATALOG_SIZE + 1; code <= CATALOG_SIZE + ABSENT_SAMPLE; code++) {
+            if (filter.mightContain(code)) {
+                falsePositives++;
+            }
+        }
+        double measured = (double) falsePositives / ABSENT_SAMPLE;
+        assertTrue(measured < falsePositiveRate * 1.25, "fpp medida: " + measured);
+        assertTrue(filter.expectedFalsePositiveRate() < falsePositiveRate * 1.05,
+                "fpp esperada: " + filter.expectedFalsePositiveRate());
+        assertTrue(filter.memoryBytes() < maxMemoryBytes, "memoria: " + filter.memoryBytes());
+    }
+
+    @Test
+    void rejectsCodesNeverAdded() {
+        BloomFilter filter = new BloomFilter(1_000, 0.001);
+        filter.put(42);
+
+        assertTrue(filter.mightContain(42));
+        assertFalse(filter.mightContain(43));
+    }
+
+    @Test
+    void rejectsInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(1_000, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(1_000, 1));
+    }
+}
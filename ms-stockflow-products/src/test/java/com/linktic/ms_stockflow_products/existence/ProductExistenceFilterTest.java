@@ -0,0 +1,106 @@
+package com.linktic.ms_stockflow_products.existence;
+
+import com.linktic.ms_stockflow_products.domain.repository.ArchivedProductRepository;
+import com.linktic.ms_stockflow_products.domain.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Catálogo simulado con los códigos impares del 1 al 199 en la tabla caliente y el 201 en el archivo: los
+ * pares no existen. Cubre el umbral de la última construcción y los productos creados mientras se reconstruye.
+ */
+class ProductExistenceFilterTest {
+
+    private static final Duration GRACE_PERIOD = Duration.ofMinutes(5);
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final ArchivedProductRepository archivedProductRepository = mock(ArchivedProductRepository.class);
+    private final ProductExistenceFilter filter;
+
+    @SuppressWarnings("unchecked")
+    ProductExistenceFilterTest() {
+        ExistenceFilterProperties properties = new ExistenceFilterProperties();
+        properties.setExpectedInsertions(1_000);
+        properties.setFalsePositiveRate(0.0001);
+        properties.setGracePeriod(GRACE_PERIOD);
+
+        when(productRepository.count()).thenReturn(100L);
+        when(archivedProductRepository.count()).thenReturn(1L);
+        when(productRepository.streamAllProductCodes())
+                .thenAnswer(invocation -> IntStream.rangeClosed(1, 199).filter(code -> code % 2 == 1).boxed());
+        when(archivedProductRepository.streamAllProductCodes()).thenAnswer(invocation -> Stream.of(201));
+        when(archivedProductRepository.findMaxProductCode()).thenReturn(201);
+
+        filter = new ProductExistenceFilter(productRepository, archivedProductRepository, mock(ObjectProvider.class),
+                properties, mock(PlatformTransactionManager.class), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void codesAboveTheSettledMaximumAlwaysMightExist() {
+        // Los productos con código mayor que 151 se crearon dentro del período de gracia
+        when(productRepository.findMaxProductCodeCreatedBefore(any())).thenReturn(151);
+        when(archivedProductRepository.findMaxProductCode()).thenReturn(null);
+
+        filter.rebuild();
+
+        assertTrue(filter.mightExist(151));
+        assertFalse(filter.mightExist(150));
+        // Por encima del umbral no se descarta ni un código ausente: otra instancia pudo crearlo
+        assertTrue(filter.mightExist(152));
+        assertTrue(filter.mightExist(10_000));
+
+        ArgumentCaptor<Date> createdBefore = ArgumentCaptor.forClass(Date.class);
+        verify(productRepository).findMaxProductCodeCreatedBefore(createdBefore.capture());
+        long graceMillis = System.currentTimeMillis() - createdBefore.getValue().getTime();
+        assertTrue(graceMillis >= GRACE_PERIOD.toMillis() && graceMillis < GRACE_PERIOD.toMillis() + 5_000,
+                "período de gracia aplicado: " + graceMillis + " ms");
+    }
+
+    @Test
+    void archivedMaximumRaisesTheThreshold() {
+        when(productRepository.findMaxProductCodeCreatedBefore(any())).thenReturn(101);
+
+        filter.rebuild();
+
+        assertTrue(filter.mightExist(201));
+        assertFalse(filter.mightExist(200));
+        assertTrue(filter.mightExist(202));
+    }
+
+    @Test
+    void codesAddedBeforeOrDuringARebuildAreKept() {
+        when(productRepository.findMaxProductCodeCreatedBefore(any())).thenReturn(199);
+        filter.rebuild();
+        assertFalse(filter.mightExist(2));
+        assertFalse(filter.mightExist(4));
+
+        // Creado por esta instancia antes de la reconstrucción, que no lo ve en el recorrido
+        filter.add(2);
+        // Creado mientras se recorren los códigos
+        when(productRepository.streamAllProductCodes()).thenAnswer(invocation -> {
+            filter.add(4);
+            return IntStream.rangeClosed(1, 199).filter(code -> code % 2 == 1).boxed();
+        });
+
+        filter.rebuild();
+
+        assertTrue(filter.mightExist(2));
+        assertTrue(filter.mightExist(4));
+        assertFalse(filter.mightExist(6));
+    }
+}
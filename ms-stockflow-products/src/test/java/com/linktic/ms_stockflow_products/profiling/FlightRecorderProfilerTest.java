@@ -0,0 +1,45 @@
+package com.linktic.ms_stockflow_products.profiling;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Una grabación con cada preset del JDK no debe incluir eventos con variables de entorno, propiedades del
+ * sistema ni argumentos de la JVM: la contraseña de la base de datos llega por ahí.
+ */
+class FlightRecorderProfilerTest {
+
+    private final FlightRecorderProfiler profiler = new FlightRecorderProfiler(new ProfilingProperties());
+
+    @AfterEach
+    void discard() {
+        profiler.shutdown();
+    }
+
+    @Test
+    void recordingsLeaveOutEventsThatMayContainSecrets() throws Exception {
+        for (String preset : FlightRecorderProfiler.PRESETS) {
+            profiler.start(preset, Duration.ofMinutes(1));
+            profiler.stop();
+            Path recording = profiler.finishedRecording();
+            assertNotNull(recording);
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(recording);
+            assertFalse(events.isEmpty(), "la grabación " + preset + " no tiene eventos");
+            assertTrue(events.stream()
+                            .map(event -> event.getEventType().getName())
+                            .noneMatch(FlightRecorderProfiler.SENSITIVE_EVENTS::contains),
+                    "la grabación " + preset + " incluye eventos sensibles");
+        }
+    }
+}
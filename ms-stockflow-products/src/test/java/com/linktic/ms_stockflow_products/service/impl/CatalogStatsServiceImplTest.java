@@ -0,0 +1,130 @@
+package com.linktic.ms_stockflow_products.service.impl;
+
+import com.linktic.ms_stockflow_products.config.CatalogStatsProperties;
+import com.linktic.ms_stockflow_products.controller.dto.ProductStatsDTO;
+import com.linktic.ms_stockflow_products.domain.repository.ProductRepository;
+import com.linktic.ms_stockflow_products.domain.repository.projection.ProductPriceCount;
+import com.linktic.ms_stockflow_products.domain.repository.projection.RepricedProductRow;
+import com.linktic.ms_stockflow_products.sharding.ShardRouter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Escrituras confirmadas mientras corre la consulta de recálculo: la consulta no las ve (su foto es anterior),
+ * así que deben sumarse al resultado en lugar de perderse o descartar la verificación.
+ */
+class CatalogStatsServiceImplTest {
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final CatalogStatsServiceImpl service;
+
+    @SuppressWarnings("unchecked")
+    CatalogStatsServiceImplTest() {
+        ObjectProvider<ShardRouter> shardRouter = mock(ObjectProvider.class);
+        service = new CatalogStatsServiceImpl(productRepository, shardRouter, new CatalogStatsProperties());
+    }
+
+    @Test
+    void initialComputationKeepsWritesCommittedDuringTheQuery() {
+        when(productRepository.countByPriceAndActive()).thenAnswer(invocation -> {
+            // Confirmada después de la foto de la consulta, con la línea base aún sin instalar
+            service.recordCreated(70_000, true);
+            return List.of(row(10_000, true, 2));
+        });
+
+        service.recompute();
+
+        ProductStatsDTO stats = service.getStats();
+        assertEquals(3, stats.getTotalProducts());
+        assertEquals(3, stats.getActiveProducts());
+        assertEquals(70_000, stats.getMaxPrice());
+        assertEquals(1, stats.getPriceHistogram().get(1).getCount());
+    }
+
+    @Test
+    void verificationCompletesAndCorrectsDriftUnderConcurrentWrites() {
+        when(productRepository.countByPriceAndActive()).thenReturn(List.of(row(10_000, true, 2)));
+        service.recompute();
+
+        // Desviación: una escritura de otra instancia que esta no registró
+        when(productRepository.countByPriceAndActive()).thenAnswer(invocation -> {
+            service.recordUpdated(10_000, true, 20_000, false);
+            return List.of(row(10_000, true, 2), row(500, true, 1));
+        });
+        service.recompute();
+
+        ProductStatsDTO stats = service.getStats();
+        assertEquals(3, stats.getTotalProducts());
+        assertEquals(2, stats.getActiveProducts());
+        assertEquals(500, stats.getMinPrice());
+        assertEquals(20_000, stats.getMaxPrice());
+        assertEquals((500 + 10_000 + 20_000) / 3.0, stats.getAveragePrice(), 0.001);
+    }
+
+    @Test
+    void repricedChunkIsAppliedAsOneDelta() {
+        when(productRepository.countByPriceAndActive()).thenReturn(List.of(row(10_000, true, 2), row(500, false, 1)));
+        service.recompute();
+
+        service.recordRepriced(List.of(
+                repriced(10_000, 11_000, true),
+                repriced(10_000, 11_000, true),
+                repriced(500, 500, false)));
+
+        ProductStatsDTO stats = service.getStats();
+        assertEquals(3, stats.getTotalProducts());
+        assertEquals(2, stats.getActiveProducts());
+        assertEquals(500, stats.getMinPrice());
+        assertEquals(11_000, stats.getMaxPrice());
+        assertEquals((500 + 2 * 11_000) / 3.0, stats.getAveragePrice(), 0.001);
+
+        // El recálculo coincide con el resultado incremental
+        when(productRepository.countByPriceAndActive()).thenReturn(List.of(row(11_000, true, 2), row(500, false, 1)));
+        service.recompute();
+        assertEquals(stats.getAveragePrice(), service.getStats().getAveragePrice());
+    }
+
+    private static RepricedProductRow repriced(int oldPrice, int newPrice, boolean active) {
+        return new RepricedProductRow() {
+            @Override
+            public Integer getOldPrice() {
+                return oldPrice;
+            }
+
+            @Override
+            public Integer getNewPrice() {
+                return newPrice;
+            }
+
+            @Override
+            public Boolean getActive() {
+                return active;
+            }
+        };
+    }
+
+    private static ProductPriceCount row(int price, boolean active, long total) {
+        return new ProductPriceCount() {
+            @Override
+            public Integer getPrice() {
+                return price;
+            }
+
+            @Override
+            public Boolean getActive() {
+                return active;
+            }
+
+            @Override
+            public Long getTotal() {
+                return total;
+            }
+        };
+    }
+}
@@ -0,0 +1,129 @@
+package com.linktic.ms_stockflow_products.service.impl;
+
+import com.linktic.ms_stockflow_products.config.ArchiveProperties;
+import com.linktic.ms_stockflow_products.domain.repository.ProductRepository;
+import com.linktic.ms_stockflow_products.domain.repository.projection.ArchivedProductRow;
+import com.linktic.ms_stockflow_products.service.CatalogStatsService;
+import com.linktic.ms_stockflow_products.sharding.ShardContext;
+import com.linktic.ms_stockflow_products.sharding.ShardRouter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Lotes del archivador: termina con el primer lote incompleto, no supera {@code maxBatchesPerRun}, descuenta de
+ * las estadísticas cada producto movido y, con sharding, archiva cada shard con su propio contexto.
+ */
+class ProductArchiveServiceImplTest {
+
+    private static final int BATCH_SIZE = 3;
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final CatalogStatsService catalogStatsService = mock(CatalogStatsService.class);
+    private final ArchiveProperties properties = new ArchiveProperties();
+
+    ProductArchiveServiceImplTest() {
+        properties.setBatchSize(BATCH_SIZE);
+    }
+
+    @Test
+    void stopsAtTheFirstShortBatchAndRecordsEveryMovedRow() {
+        when(productRepository.archiveInactiveBatch(any(Date.class), eq(BATCH_SIZE)))
+                .thenReturn(rows(1, 3), rows(4, 3), rows(7, 1), rows(8, 3));
+
+        assertEquals(7, service(null).archiveInactiveProducts());
+
+        verify(productRepository, times(3)).archiveInactiveBatch(any(Date.class), eq(BATCH_SIZE));
+        verify(catalogStatsService, times(7)).recordRemoved(anyInt(), anyBoolean());
+        // El precio de cada fila es su código por 100
+        verify(catalogStatsService).recordRemoved(700, false);
+    }
+
+    @Test
+    void respectsMaxBatchesPerRun() {
+        properties.setMaxBatchesPerRun(2);
+        when(productRepository.archiveInactiveBatch(any(Date.class), eq(BATCH_SIZE))).thenReturn(rows(1, 3));
+
+        assertEquals(6, service(null).archiveInactiveProducts());
+
+        verify(productRepository, times(2)).archiveInactiveBatch(any(Date.class), eq(BATCH_SIZE));
+        verify(catalogStatsService, times(6)).recordRemoved(anyInt(), anyBoolean());
+    }
+
+    @Test
+    void archivesEachShardInItsOwnContext() {
+        ShardRouter router = new ShardRouter(3, 1);
+        List<Integer> shards = new ArrayList<>();
+        // El shard i tiene i + 1 productos por archivar: con lotes de 4, un solo lote incompleto en cada uno
+        properties.setBatchSize(4);
+        when(productRepository.archiveInactiveBatch(any(Date.class), eq(4))).thenAnswer(invocation -> {
+            int shard = ShardContext.current();
+            shards.add(shard);
+            return rows(shard * 10 + 1, shard + 1);
+        });
+
+        try {
+            assertEquals(6, service(router).archiveInactiveProducts());
+        } finally {
+            router.shutdown();
+        }
+
+        assertEquals(List.of(0, 1, 2), shards);
+        verify(catalogStatsService, times(6)).recordRemoved(anyInt(), anyBoolean());
+    }
+
+    @Test
+    void disabledArchiverDoesNothing() {
+        properties.setEnabled(false);
+
+        assertEquals(0, service(null).archiveInactiveProducts());
+
+        verify(productRepository, times(0)).archiveInactiveBatch(any(Date.class), anyInt());
+    }
+
+    @SuppressWarnings("unchecked")
+    private ProductArchiveServiceImpl service(ShardRouter router) {
+        ObjectProvider<ShardRouter> shardRouter = mock(ObjectProvider.class);
+        when(shardRouter.getIfAvailable()).thenReturn(router);
+        return new ProductArchiveServiceImpl(productRepository, catalogStatsService, shardRouter, properties,
+                mock(PlatformTransactionManager.class));
+    }
+
+    private static List<ArchivedProductRow> rows(int firstCode, int count) {
+        return IntStream.range(firstCode, firstCode + count).mapToObj(ProductArchiveServiceImplTest::row).toList();
+    }
+
+    private static ArchivedProductRow row(int productCode) {
+        return new ArchivedProductRow() {
+            @Override
+            public Integer getProductCode() {
+                return productCode;
+            }
+
+            @Override
+            public Integer getPrice() {
+                return productCode * 100;
+            }
+
+            @Override
+            public Boolean getActive() {
+                return false;
+            }
+        };
+    }
+}
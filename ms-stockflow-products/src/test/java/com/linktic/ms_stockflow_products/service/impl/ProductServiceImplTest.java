@@ -0,0 +1,135 @@
+package com.linktic.ms_stockflow_products.service.impl;
+
+import com.linktic.ms_stockflow_products.controller.dto.ProductAvailabilityDTO;
+import com.linktic.ms_stockflow_products.controller.dto.ProductDTO;
+import com.linktic.ms_stockflow_products.controller.dto.ProductUpdateDTO;
+import com.linktic.ms_stockflow_products.domain.builder.ObjectBuilder;
+import com.linktic.ms_stockflow_products.domain.entity.ArchivedProduct;
+import com.linktic.ms_stockflow_products.domain.entity.Product;
+import com.linktic.ms_stockflow_products.domain.repository.ArchivedProductRepository;
+import com.linktic.ms_stockflow_products.domain.repository.ProductRepository;
+import com.linktic.ms_stockflow_products.domain.repository.projection.ProductAvailabilityRow;
+import com.linktic.ms_stockflow_products.domain.repository.projection.ProductStateRow;
+import com.linktic.ms_stockflow_products.exception.ProductNotFoundException;
+import com.linktic.ms_stockflow_products.existence.ProductExistenceFilter;
+import com.linktic.ms_stockflow_products.service.CatalogStatsService;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Productos archivados: las lecturas por código los buscan en el archivo, actualizarlos los restaura y
+ * vuelve a contarlos en las estadísticas antes de registrar el cambio, y eliminarlos no tiene efecto.
+ */
+class ProductServiceImplTest {
+
+    private static final int ARCHIVED_CODE = 42;
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final ArchivedProductRepository archivedProductRepository = mock(ArchivedProductRepository.class);
+    private final ObjectBuilder objectBuilder = mock(ObjectBuilder.class);
+    private final CatalogStatsService catalogStatsService = mock(CatalogStatsService.class);
+    private final ProductExistenceFilter existenceFilter = mock(ProductExistenceFilter.class);
+    private final ProductServiceImpl service = new ProductServiceImpl(
+            productRepository, archivedProductRepository, objectBuilder, catalogStatsService, existenceFilter);
+
+    ProductServiceImplTest() {
+        when(existenceFilter.mightExist(anyInt())).thenReturn(true);
+        when(productRepository.save(any(Product.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void updateRestoresArchivedProductAndCountsItBeforeTheUpdate() {
+        Product restored = Product.builder()
+                .productCode(ARCHIVED_CODE).name("Archivado").price(100).active(false)
+                .build();
+        when(productRepository.findByProductCode(ARCHIVED_CODE)).thenReturn(null, restored);
+        when(archivedProductRepository.restore(ARCHIVED_CODE)).thenReturn(state(100, false));
+
+        service.updateProduct(ARCHIVED_CODE, ProductUpdateDTO.builder().price(200).active(true).build());
+
+        InOrder stats = inOrder(catalogStatsService);
+        stats.verify(catalogStatsService).recordCreated(100, false);
+        stats.verify(catalogStatsService).recordUpdated(100, false, 200, true);
+        assertEquals(200, restored.getPrice());
+        assertEquals(true, restored.getActive());
+    }
+
+    @Test
+    void updateOfCodeInNeitherTableIsNotFound() {
+        assertThrows(ProductNotFoundException.class,
+                () -> service.updateProduct(ARCHIVED_CODE, ProductUpdateDTO.builder().price(200).build()));
+
+        verify(archivedProductRepository).restore(ARCHIVED_CODE);
+        verify(productRepository, never()).save(any(Product.class));
+        verifyNoInteractions(catalogStatsService);
+    }
+
+    @Test
+    void readsByCodeFallBackToTheArchive() {
+        ArchivedProduct archived = mock(ArchivedProduct.class);
+        ProductDTO archivedDto = ProductDTO.builder().productCode(ARCHIVED_CODE).active(false).build();
+        when(archivedProductRepository.findByProductCode(ARCHIVED_CODE)).thenReturn(archived);
+        when(objectBuilder.map(archived, ProductDTO.class)).thenReturn(archivedDto);
+
+        ProductAvailabilityRow availability = mock(ProductAvailabilityRow.class);
+        when(availability.getProductCode()).thenReturn(ARCHIVED_CODE);
+        when(availability.getQuantity()).thenReturn(7);
+        when(archivedProductRepository.findAvailabilityByProductCode(ARCHIVED_CODE)).thenReturn(availability);
+
+        assertSame(archivedDto, service.getProductByCode(ARCHIVED_CODE));
+        ProductAvailabilityDTO archivedAvailability = service.getProductAvailability(ARCHIVED_CODE);
+        assertEquals(ARCHIVED_CODE, archivedAvailability.getProductCode());
+        assertEquals(7, archivedAvailability.getQuantity());
+        verify(existenceFilter, never()).recordFalsePositives(anyInt());
+    }
+
+    @Test
+    void readOfCodeInNeitherTableIsNotFoundAndCountsAsFalsePositive() {
+        assertThrows(ProductNotFoundException.class, () -> service.getProductByCode(ARCHIVED_CODE));
+
+        verify(archivedProductRepository).findByProductCode(ARCHIVED_CODE);
+        verify(existenceFilter).recordFalsePositives(1);
+    }
+
+    @Test
+    void deleteOfArchivedProductHasNoEffect() {
+        when(archivedProductRepository.existsById(ARCHIVED_CODE)).thenReturn(true);
+
+        service.deleteProduct(ARCHIVED_CODE);
+
+        verify(productRepository, never()).save(any(Product.class));
+        verifyNoInteractions(catalogStatsService);
+        assertThrows(ProductNotFoundException.class, () -> service.deleteProduct(ARCHIVED_CODE + 1));
+    }
+
+    private static ProductStateRow state(int price, boolean active) {
+        return new ProductStateRow() {
+            @Override
+            public Integer getProductCode() {
+                return ARCHIVED_CODE;
+            }
+
+            @Override
+            public Integer getPrice() {
+                return price;
+            }
+
+            @Override
+            public Boolean getActive() {
+                return active;
+            }
+        };
+    }
+}
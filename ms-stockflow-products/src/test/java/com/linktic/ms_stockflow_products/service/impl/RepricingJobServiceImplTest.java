@@ -0,0 +1,94 @@
+package com.linktic.ms_stockflow_products.service.impl;
+
+import com.linktic.ms_stockflow_products.config.RepricingProperties;
+import com.linktic.ms_stockflow_products.controller.dto.RepricingJobRequestDTO;
+import com.linktic.ms_stockflow_products.domain.entity.RepricingRuleType;
+import com.linktic.ms_stockflow_products.domain.repository.ProductRepository;
+import com.linktic.ms_stockflow_products.domain.repository.RepricingJobRangeRepository;
+import com.linktic.ms_stockflow_products.domain.repository.RepricingJobRepository;
+import com.linktic.ms_stockflow_products.domain.repository.projection.ProductCodeRange;
+import com.linktic.ms_stockflow_products.service.CatalogStatsService;
+import com.linktic.ms_stockflow_products.sharding.ShardContext;
+import com.linktic.ms_stockflow_products.sharding.ShardRouter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Registro de un trabajo en modo particionado: si un shard falla, los shards ya confirmados no deben
+ * conservar un trabajo RUNNING que se reanudaría al arrancar sin los rangos del shard que falló.
+ */
+class RepricingJobServiceImplTest {
+
+    private static final int SHARDS = 3;
+
+    private final RepricingJobRepository jobRepository = mock(RepricingJobRepository.class);
+    private final RepricingJobRangeRepository rangeRepository = mock(RepricingJobRangeRepository.class);
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final ShardRouter router = new ShardRouter(SHARDS, 2);
+    private final RepricingJobServiceImpl service;
+
+    @SuppressWarnings("unchecked")
+    RepricingJobServiceImplTest() {
+        ObjectProvider<ShardRouter> shardRouter = mock(ObjectProvider.class);
+        when(shardRouter.getIfAvailable()).thenReturn(router);
+        service = new RepricingJobServiceImpl(jobRepository, rangeRepository, productRepository,
+                mock(CatalogStatsService.class), shardRouter, new RepricingProperties(),
+                mock(PlatformTransactionManager.class));
+    }
+
+    @AfterEach
+    void shutdown() {
+        service.shutdown();
+        router.shutdown();
+    }
+
+    @Test
+    void failedShardDiscardsTheJobOnShardsAlreadyRegistered() {
+        when(productRepository.findCodeRange()).thenAnswer(invocation -> {
+            if (ShardContext.current() == SHARDS - 1) {
+                throw new IllegalStateException("shard caído");
+            }
+            return codeRange(1, 30);
+        });
+        when(rangeRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        Set<Integer> discardedOn = ConcurrentHashMap.newKeySet();
+        doAnswer(invocation -> discardedOn.add(ShardContext.current()))
+                .when(jobRepository).deleteById(any(UUID.class));
+
+        RepricingJobRequestDTO request = RepricingJobRequestDTO.builder()
+                .ruleType(RepricingRuleType.PERCENTAGE)
+                .value(BigDecimal.TEN)
+                .build();
+
+        assertThrows(IllegalStateException.class, () -> service.createJob(request));
+        assertEquals(Set.of(0, 1), discardedOn);
+    }
+
+    private static ProductCodeRange codeRange(int minCode, int maxCode) {
+        return new ProductCodeRange() {
+            @Override
+            public Integer getMinCode() {
+                return minCode;
+            }
+
+            @Override
+            public Integer getMaxCode() {
+                return maxCode;
+            }
+        };
+    }
+}
@@ -0,0 +1,49 @@
+package com.linktic.ms_stockflow_products.sharding;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * El ruteo debe coincidir con las secuencias de cada shard: el shard {@code i} genera los códigos
+ * {@code i + 1, i + 1 + n, i + 1 + 2n...}.
+ */
+class ShardRouterTest {
+
+    private static final int SHARDS = 4;
+
+    private final ShardRouter router = new ShardRouter(SHARDS, 2);
+
+    @AfterEach
+    void shutdown() {
+        router.shutdown();
+    }
+
+    @Test
+    void routesEachCodeToTheShardWhoseSequenceGeneratesIt() {
+        for (int shard = 0; shard < SHARDS; shard++) {
+            for (int code = shard + 1; code <= 1_000; code += SHARDS) {
+                assertEquals(shard, router.shardFor(code), "código " + code);
+            }
+        }
+        // Códigos fuera de las secuencias (0 o negativos) también caen en un shard válido
+        assertEquals(SHARDS - 1, router.shardFor(0));
+        assertEquals(SHARDS - 2, router.shardFor(-1));
+    }
+
+    @Test
+    void scatterReturnsResultsInShardOrderAndPropagatesFailures() {
+        assertEquals(List.of(0, 1, 2, 3), router.scatter(shard -> ShardContext.current()));
+
+        assertThrows(IllegalStateException.class, () -> router.scatter(shard -> {
+            if (shard == 2) {
+                throw new IllegalStateException("shard caído");
+            }
+            return shard;
+        }));
+    }
+}
@@ -0,0 +1,127 @@
+package com.linktic.ms_stockflow_products.sharding;
+
+import com.linktic.ms_stockflow_products.controller.dto.ProductDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Catálogo de 20 productos repartido en 3 shards con el mismo {@link ShardRouter} del servicio. Cada shard
+ * responde como lo haría PostgreSQL (orden pedido, nulos primero en DESC) y la página combinada debe coincidir
+ * con la del catálogo completo ordenado.
+ */
+class ShardedPagesTest {
+
+    private static final int SHARDS = 3;
+    private static final int CATALOG_SIZE = 20;
+
+    // Orden de referencia: precio descendente con nulos primero y desempate por código
+    private static final Comparator<ProductDTO> BY_PRICE_DESC =
+            Comparator.comparing(ProductDTO::getPrice, Comparator.nullsFirst(Comparator.<Integer>reverseOrder()))
+                    .thenComparing(ProductDTO::getProductCode);
+
+    private final ShardRouter router = new ShardRouter(SHARDS, 1);
+    private final List<ProductDTO> catalog = new ArrayList<>();
+
+    ShardedPagesTest() {
+        for (int code = 1; code <= CATALOG_SIZE; code++) {
+            // Precios repetidos entre shards y uno nulo, para ejercitar el desempate y el manejo de nulos
+            Integer price = code == 7 ? null : (code * 7 % 5) * 100;
+            catalog.add(ProductDTO.builder().productCode(code).price(price).build());
+        }
+    }
+
+    @AfterEach
+    void shutdown() {
+        router.shutdown();
+    }
+
+    @Test
+    void mergesEveryPageInGlobalOrderForANonKeySort() {
+        List<ProductDTO> expected = catalog.stream().sorted(BY_PRICE_DESC).toList();
+
+        int size = 6;
+        for (int page = 0; page * size < CATALOG_SIZE; page++) {
+            Page<ProductDTO> merged = mergedPage(PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "price")));
+
+            List<ProductDTO> expectedPage = expected.subList(page * size, Math.min(CATALOG_SIZE, (page + 1) * size));
+            assertEquals(codes(expectedPage), codes(merged.getContent()), "página " + page);
+            assertEquals(CATALOG_SIZE, merged.getTotalElements());
+        }
+    }
+
+    @Test
+    void lastPageIsPartialAndDeeperPagesAreEmpty() {
+        // Página 3 de 6: cada shard tiene 6 o 7 productos y se le piden 24, más de los que tiene
+        Page<ProductDTO> last = mergedPage(PageRequest.of(3, 6, Sort.by(Sort.Direction.DESC, "price")));
+        assertEquals(2, last.getNumberOfElements());
+        assertEquals(4, last.getTotalPages());
+        assertTrue(last.isLast());
+
+        Page<ProductDTO> beyond = mergedPage(PageRequest.of(5, 6, Sort.by(Sort.Direction.DESC, "price")));
+        assertFalse(beyond.hasContent());
+        assertEquals(CATALOG_SIZE, beyond.getTotalElements());
+    }
+
+    @Test
+    void shardPageableRequestsOffsetPlusSizeWithTieBreaker() {
+        Pageable shardPageable = ShardedPages.shardPageable(PageRequest.of(2, 5, Sort.by("price")));
+
+        assertEquals(0, shardPageable.getPageNumber());
+        assertEquals(15, shardPageable.getPageSize());
+        assertEquals(Sort.by("price").and(Sort.by("productCode")), shardPageable.getSort());
+    }
+
+    @Test
+    void comparesTextByCodePointLikeCollationC() {
+        // U+FB01 precede a U+1F600, aunque su primera unidad UTF-16 (0xFB01) sea mayor que el sustituto 0xD83D
+        String ligature = "\uFB01";
+        String emoji = "\uD83D\uDE00";
+        assertTrue(ligature.compareTo(emoji) > 0);
+        assertTrue(ShardedPages.compareCodePoints(ligature, emoji, false) < 0);
+
+        assertTrue(ShardedPages.compareCodePoints("Zeta", "alfa", false) < 0);
+        assertTrue(ShardedPages.compareCodePoints("Zeta", "alfa", true) > 0);
+        assertTrue(ShardedPages.compareCodePoints("alfa", "alfabeto", false) < 0);
+        assertEquals(0, ShardedPages.compareCodePoints("Alfa", "alfa", true));
+
+        List<ProductDTO> products = List.of(
+                ProductDTO.builder().productCode(1).name(emoji).build(),
+                ProductDTO.builder().productCode(2).name(ligature).build());
+        List<Page<ProductDTO>> shardPages = List.of(
+                new PageImpl<>(List.of(products.get(1))), new PageImpl<>(List.of(products.get(0))));
+        Page<ProductDTO> merged = ShardedPages.merge(shardPages, PageRequest.of(0, 2, Sort.by("name")));
+        assertEquals(List.of(2, 1), codes(merged.getContent()));
+    }
+
+    private Page<ProductDTO> mergedPage(Pageable pageable) {
+        Pageable shardPageable = ShardedPages.shardPageable(pageable);
+        List<Page<ProductDTO>> shardPages = router.scatter(shard -> shardPage(shard, shardPageable));
+        return ShardedPages.merge(shardPages, pageable);
+    }
+
+    private Page<ProductDTO> shardPage(int shard, Pageable shardPageable) {
+        List<ProductDTO> rows = catalog.stream()
+                .filter(product -> router.shardFor(product.getProductCode()) == shard)
+                .sorted(BY_PRICE_DESC)
+                .toList();
+        int to = (int) Math.min(rows.size(), shardPageable.getOffset() + shardPageable.getPageSize());
+        return new PageImpl<>(rows.subList((int) shardPageable.getOffset(), to), shardPageable, rows.size());
+    }
+
+    private static List<Integer> codes(List<ProductDTO> products) {
+        return products.stream().map(ProductDTO::getProductCode).toList();
+    }
+}
@@ -1,15 +1,31 @@
 #!/bin/sh
 set -e
 
+# Ejecuta una consulta con el cliente de Prisma generado; termina con código 0 si devuelve true
+query() {
+  node -e "
+    const { PrismaClient } = require('@prisma/client');
+    const prisma = new PrismaClient();
+    prisma.\$queryRawUnsafe(\"$1\")
+      .then((rows) => process.exit(Object.values(rows[0])[0] ? 0 : 1))
+      .catch(() => process.exit(2))
+      .finally(() => prisma.\$disconnect());
+  "
+}
+
 echo "Waiting for database to be ready..."
-# Wait for database to be ready
-until npx prisma db push --accept-data-loss 2>/dev/null; do
+until query "SELECT true"; do
   echo "Database is unavailable - waiting..."
   sleep 2
 done
 
-echo "Database is ready. Running migrations..."
-npx prisma migrate deploy || npx prisma db push --accept-data-loss
+# El esquema compartido lo define stockflow-database/schema.sql e incluye objetos que Prisma no
+# modela (tablas de archivo, índices parciales). Solo se sincroniza con Prisma si la base está vacía,
+# y nunca con --accept-data-loss, para no eliminarlos.
+if ! query "SELECT to_regclass('public.stock') IS NOT NULL"; then
+  echo "Schema not found. Creating it with Prisma..."
+  npx prisma db push --skip-generate
+fi
 
 echo "Starting application..."
 exec node dist/src/main.js
@@ -6,6 +6,14 @@ import {
 import { PrismaService } from '../../shared/prisma/prisma.service';
 import { ProductsService } from '../products/products.service';
 
+interface ArchivedStock {
+  stockCode: number;
+  productCode: number;
+  quantity: number;
+  createdAt: Date | null;
+  updatedAt: Date | null;
+}
+
 @Injectable()
 export class StockService {
   constructor(
@@ -22,10 +30,11 @@ export class StockService {
       throw new NotFoundException(`Product with code ${productCode} not found`);
     }
 
-    // 2. Find current stock in database
-    const stock = await this.prisma.stock.findUnique({
-      where: { productCode: productCode },
-    });
+    // 2. Find current stock in database; inactive products may have been moved to stock_archive
+    const stock =
+      (await this.prisma.stock.findUnique({
+        where: { productCode: productCode },
+      })) ?? (await this.findArchivedStock(productCode));
 
     if (!stock) {
       throw new NotFoundException(`Stock not found for product ${productCode}`);
@@ -95,4 +104,19 @@ export class StockService {
       },
     };
   }
+
+  /**
+   * The products service archives inactive products together with their stock.
+   * Prisma does not model the archive tables (see stockflow-database/schema.sql),
+   * so they are read with a raw query.
+   */
+  private async findArchivedStock(productCode: number) {
+    const rows = await this.prisma.$queryRaw<ArchivedStock[]>`
+      SELECT stock_code AS "stockCode", product_code AS "productCode", quantity,
+             created_at AS "createdAt", updated_at AS "updatedAt"
+      FROM stock_archive
+      WHERE product_code = ${productCode}
+    `;
+    return rows[0] ?? null;
+  }
 }
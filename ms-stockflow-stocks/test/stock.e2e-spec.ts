@@ -0,0 +1,68 @@
+import { INestApplication } from '@nestjs/common';
+import { Test } from '@nestjs/testing';
+import request from 'supertest';
+import { AppModule } from '../src/app.module';
+import { ProductsService } from '../src/modules/products/products.service';
+import { PrismaService } from '../src/shared/prisma/prisma.service';
+
+/**
+ * Reads stock through the HTTP API against the database in DATABASE_URL
+ * (created with stockflow-database/schema.sql). The products service is
+ * replaced by a stub that reports the product as inactive, as it does for
+ * archived products.
+ */
+describe('GET /stock/product/:productCode (e2e)', () => {
+  // Far above any sequence value, so it never collides with real products
+  const archivedCode = 2_000_000_000;
+
+  let app: INestApplication;
+  let prisma: PrismaService;
+
+  beforeAll(async () => {
+    const moduleRef = await Test.createTestingModule({ imports: [AppModule] })
+      .overrideProvider(ProductsService)
+      .useValue({
+        getProductById: (productCode: number) =>
+          Promise.resolve({ productCode, name: 'Archivado', active: false }),
+      })
+      .compile();
+
+    app = moduleRef.createNestApplication();
+    await app.init();
+    prisma = app.get(PrismaService);
+
+    await prisma.$executeRaw`DELETE FROM products_archive WHERE product_code = ${archivedCode}`;
+    await prisma.$executeRaw`
+      INSERT INTO products_archive (product_code, name, price, active)
+      VALUES (${archivedCode}, 'Archivado', 1000, false)
+    `;
+    await prisma.$executeRaw`
+      INSERT INTO stock_archive (stock_code, product_code, quantity)
+      VALUES (${archivedCode}, ${archivedCode}, 7)
+    `;
+  });
+
+  afterAll(async () => {
+    // stock_archive rows are removed by the cascade
+    await prisma.$executeRaw`DELETE FROM products_archive WHERE product_code = ${archivedCode}`;
+    await app.close();
+  });
+
+  it('returns the archived stock of an archived product', async () => {
+    const response = await request(app.getHttpServer())
+      .get(`/stock/product/${archivedCode}`)
+      .expect(200);
+
+    expect(response.body).toMatchObject({
+      stockCode: archivedCode,
+      productCode: archivedCode,
+      quantity: 7,
+    });
+  });
+
+  it('still returns 404 when there is no stock in either table', async () => {
+    await request(app.getHttpServer())
+      .get(`/stock/product/${archivedCode + 1}`)
+      .expect(404);
+  });
+});
@@ -0,0 +1,51 @@
+-- ============================================
+-- STOCKFLOW - Medición de la tabla caliente y el archivo
+-- ============================================
+-- Muestra la proporción de inactivos, el tamaño de tablas e índices y la latencia de las consultas
+-- principales del microservicio de productos. Ejecútelo antes y después de seed_inactive.sql y del
+-- archivador para comparar.
+-- EJECUCIÓN: psql -U postgres -d stockflow_db -f archive/measure_hot_cold.sql
+-- ============================================
+
+\echo '== Filas por estado =='
+SELECT count(*) FILTER (WHERE active) AS activos,
+       count(*) FILTER (WHERE NOT active) AS inactivos,
+       round(100.0 * count(*) FILTER (WHERE NOT active) / greatest(count(*), 1), 1) AS pct_inactivos,
+       (SELECT count(*) FROM products_archive) AS archivados
+FROM products;
+
+\echo '== Tamaño de tablas e índices =='
+SELECT relname AS relacion,
+       pg_size_pretty(pg_table_size(oid)) AS tabla,
+       pg_size_pretty(pg_indexes_size(oid)) AS indices,
+       pg_size_pretty(pg_total_relation_size(oid)) AS total
+FROM pg_class
+WHERE relname IN ('products', 'stock', 'products_archive', 'stock_archive')
+ORDER BY relname;
+
+SELECT indexrelname AS indice, pg_size_pretty(pg_relation_size(indexrelid)) AS tamano, idx_scan AS usos
+FROM pg_stat_user_indexes
+WHERE relname IN ('products', 'products_archive')
+ORDER BY indexrelname;
+
+\echo '== Tuplas muertas y último vacuum =='
+SELECT relname AS relacion, n_live_tup, n_dead_tup, last_autovacuum, last_autoanalyze
+FROM pg_stat_user_tables
+WHERE relname IN ('products', 'stock', 'products_archive', 'stock_archive')
+ORDER BY relname;
+
+\echo '== Listado paginado (todos) =='
+EXPLAIN (ANALYZE, BUFFERS, TIMING OFF, SUMMARY ON)
+SELECT * FROM products ORDER BY product_code LIMIT 10 OFFSET 1000;
+
+\echo '== Listado paginado (solo activos, índice parcial) =='
+EXPLAIN (ANALYZE, BUFFERS, TIMING OFF, SUMMARY ON)
+SELECT * FROM products WHERE active = true ORDER BY product_code LIMIT 10 OFFSET 1000;
+
+\echo '== Conteo del listado =='
+EXPLAIN (ANALYZE, BUFFERS, TIMING OFF, SUMMARY ON)
+SELECT count(*) FROM products;
+
+\echo '== Consulta por código =='
+EXPLAIN (ANALYZE, BUFFERS, TIMING OFF, SUMMARY ON)
+SELECT * FROM products WHERE product_code = (SELECT max(product_code) FROM products);
@@ -0,0 +1,24 @@
+-- ============================================
+-- STOCKFLOW - Generar productos inactivos antiguos
+-- ============================================
+-- Inserta :count productos inactivos con updated_at de hace :days días (y su stock), para medir
+-- cómo crece el costo de la tabla caliente con la proporción de inactivos y luego archivarlos.
+-- EJECUCIÓN: psql -U postgres -d stockflow_db -v count=100000 -v days=120 -f archive/seed_inactive.sql
+-- ============================================
+
+WITH inserted AS (
+    INSERT INTO products (name, description, price, active, created_at, updated_at)
+    SELECT 'Producto descontinuado ' || n,
+           'Generado por seed_inactive.sql',
+           1000 + (random() * 2000000)::int,
+           false,
+           now() - make_interval(days => :days + 30),
+           now() - make_interval(days => :days)
+    FROM generate_series(1, :count) AS n
+    RETURNING product_code
+)
+INSERT INTO stock (product_code, quantity)
+SELECT product_code, (random() * 50)::int FROM inserted;
+
+ANALYZE products;
+ANALYZE stock;
@@ -0,0 +1,33 @@
+-- ============================================
+-- STOCKFLOW - Migración: separación de datos calientes y fríos
+-- ============================================
+-- Para bases de datos creadas con una versión anterior de schema.sql.
+-- Es idempotente: puede ejecutarse más de una vez.
+-- EJECUCIÓN: psql -U postgres -d stockflow_db -f migrations/001_hot_cold_split.sql
+-- ============================================
+
+CREATE INDEX IF NOT EXISTS idx_products_active_code ON products(product_code) WHERE active = true;
+CREATE INDEX IF NOT EXISTS idx_products_inactive_updated ON products(updated_at) WHERE active = false;
+
+CREATE TABLE IF NOT EXISTS products_archive (
+    product_code INTEGER PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    description TEXT,
+    price INTEGER NOT NULL,
+    active BOOLEAN,
+    created_at TIMESTAMP WITHOUT TIME ZONE,
+    updated_at TIMESTAMP WITHOUT TIME ZONE,
+    archived_at TIMESTAMP WITHOUT TIME ZONE DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS stock_archive (
+    stock_code INTEGER PRIMARY KEY,
+    product_code INTEGER NOT NULL UNIQUE REFERENCES products_archive(product_code) ON DELETE CASCADE,
+    quantity INTEGER NOT NULL,
+    created_at TIMESTAMP WITHOUT TIME ZONE,
+    updated_at TIMESTAMP WITHOUT TIME ZONE,
+    archived_at TIMESTAMP WITHOUT TIME ZONE DEFAULT CURRENT_TIMESTAMP
+);
+
+COMMENT ON TABLE products_archive IS 'Productos inactivos archivados (datos fríos)';
+COMMENT ON TABLE stock_archive IS 'Stock de los productos archivados';
@@ -0,0 +1,40 @@
+-- ============================================
+-- STOCKFLOW - Migración: trabajos de reprecio masivo
+-- ============================================
+-- Para bases de datos creadas con una versión anterior de schema.sql.
+-- Es idempotente: puede ejecutarse más de una vez.
+-- EJECUCIÓN: psql -U postgres -d stockflow_db -f migrations/002_repricing_jobs.sql
+-- ============================================
+
+CREATE TABLE IF NOT EXISTS repricing_jobs (
+    job_id UUID PRIMARY KEY,
+    rule_type VARCHAR(20) NOT NULL CHECK (rule_type IN ('PERCENTAGE', 'FIXED')),
+    rule_value NUMERIC(12, 2) NOT NULL,
+    active_filter BOOLEAN,
+    min_price INTEGER,
+    max_price INTEGER,
+    status VARCHAR(20) NOT NULL CHECK (status IN ('RUNNING', 'COMPLETED', 'FAILED')),
+    error_message TEXT,
+    started_at TIMESTAMP WITHOUT TIME ZONE,
+    finished_at TIMESTAMP WITHOUT TIME ZONE,
+    created_at TIMESTAMP WITHOUT TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP WITHOUT TIME ZONE DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS repricing_job_ranges (
+    range_id BIGSERIAL PRIMARY KEY,
+    job_id UUID NOT NULL REFERENCES repricing_jobs(job_id) ON DELETE CASCADE,
+    from_code INTEGER NOT NULL,
+    to_code INTEGER NOT NULL,
+    next_code INTEGER NOT NULL,
+    products_updated BIGINT NOT NULL DEFAULT 0,
+    status VARCHAR(20) NOT NULL CHECK (status IN ('RUNNING', 'COMPLETED', 'FAILED')),
+    created_at TIMESTAMP WITHOUT TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP WITHOUT TIME ZONE DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_repricing_jobs_status ON repricing_jobs(status);
+CREATE INDEX IF NOT EXISTS idx_repricing_job_ranges_job ON repricing_job_ranges(job_id);
+
+COMMENT ON TABLE repricing_jobs IS 'Trabajos de reprecio masivo del catálogo';
+COMMENT ON TABLE repricing_job_ranges IS 'Rangos de product_code de cada trabajo de reprecio y su avance';
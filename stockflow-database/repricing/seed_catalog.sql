@@ -0,0 +1,26 @@
+-- ============================================
+-- STOCKFLOW - Generar un catálogo grande para medir el reprecio masivo
+-- ============================================
+-- Inserta :count productos (90 % activos) con precios aleatorios y su stock, y guarda una copia de
+-- los precios en repricing_benchmark_prices para verificar el resultado de un trabajo de reprecio.
+-- EJECUCIÓN: psql -U postgres -d stockflow_db -v count=1000000 -f repricing/seed_catalog.sql
+-- ============================================
+
+WITH inserted AS (
+    INSERT INTO products (name, description, price, active)
+    SELECT 'Producto de catálogo ' || n,
+           'Generado por seed_catalog.sql',
+           1000 + (random() * 2000000)::int,
+           random() < 0.9
+    FROM generate_series(1, :count) AS n
+    RETURNING product_code
+)
+INSERT INTO stock (product_code, quantity)
+SELECT product_code, (random() * 50)::int FROM inserted;
+
+DROP TABLE IF EXISTS repricing_benchmark_prices;
+CREATE TABLE repricing_benchmark_prices AS
+SELECT product_code, price, active FROM products;
+
+ANALYZE products;
+ANALYZE stock;
@@ -7,6 +7,10 @@
 -- ============================================
 
 -- Limpiar tablas existentes
+DROP TABLE IF EXISTS repricing_job_ranges CASCADE;
+DROP TABLE IF EXISTS repricing_jobs CASCADE;
+DROP TABLE IF EXISTS stock_archive CASCADE;
+DROP TABLE IF EXISTS products_archive CASCADE;
 DROP TABLE IF EXISTS stock CASCADE;
 DROP TABLE IF EXISTS products CASCADE;
 DROP FUNCTION IF EXISTS update_updated_at_column() CASCADE;
@@ -39,6 +43,10 @@ CREATE TABLE products (
 
 CREATE INDEX idx_products_code ON products(product_code);
 
+-- Índices parciales: el listado de activos y el archivador solo recorren las filas que les interesan
+CREATE INDEX idx_products_active_code ON products(product_code) WHERE active = true;
+CREATE INDEX idx_products_inactive_updated ON products(updated_at) WHERE active = false;
+
 COMMENT ON TABLE products IS 'Catálogo de productos del sistema';
 COMMENT ON COLUMN products.product_code IS 'Código único de producto';
 
@@ -60,6 +68,74 @@ COMMENT ON TABLE stock IS 'Control de stock de productos';
 COMMENT ON COLUMN stock.quantity IS 'Cantidad disponible en stock';
 COMMENT ON COLUMN stock.stock_code IS 'Código único de stock';
 
+-- ============================================
+-- TABLAS DE ARCHIVO (datos fríos)
+-- ============================================
+-- Los productos inactivos durante más tiempo que stockflow.archive.inactive-for se mueven aquí
+-- junto con su stock; siguen disponibles para consultas por código.
+
+CREATE TABLE products_archive (
+    product_code INTEGER PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    description TEXT,
+    price INTEGER NOT NULL,
+    active BOOLEAN,
+    created_at TIMESTAMP WITHOUT TIME ZONE,
+    updated_at TIMESTAMP WITHOUT TIME ZONE,
+    archived_at TIMESTAMP WITHOUT TIME ZONE DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE stock_archive (
+    stock_code INTEGER PRIMARY KEY,
+    product_code INTEGER NOT NULL UNIQUE REFERENCES products_archive(product_code) ON DELETE CASCADE,
+    quantity INTEGER NOT NULL,
+    created_at TIMESTAMP WITHOUT TIME ZONE,
+    updated_at TIMESTAMP WITHOUT TIME ZONE,
+    archived_at TIMESTAMP WITHOUT TIME ZONE DEFAULT CURRENT_TIMESTAMP
+);
+
+COMMENT ON TABLE products_archive IS 'Productos inactivos archivados (datos fríos)';
+COMMENT ON TABLE stock_archive IS 'Stock de los productos archivados';
+
+-- ============================================
+-- TABLAS: trabajos de reprecio masivo
+-- ============================================
+-- Cada trabajo divide el catálogo en rangos de product_code; next_code registra el avance de cada
+-- rango y se confirma en la misma transacción que el lote de precios, para reanudar tras una caída.
+
+CREATE TABLE repricing_jobs (
+    job_id UUID PRIMARY KEY,
+    rule_type VARCHAR(20) NOT NULL CHECK (rule_type IN ('PERCENTAGE', 'FIXED')),
+    rule_value NUMERIC(12, 2) NOT NULL,
+    active_filter BOOLEAN,
+    min_price INTEGER,
+    max_price INTEGER,
+    status VARCHAR(20) NOT NULL CHECK (status IN ('RUNNING', 'COMPLETED', 'FAILED')),
+    error_message TEXT,
+    started_at TIMESTAMP WITHOUT TIME ZONE,
+    finished_at TIMESTAMP WITHOUT TIME ZONE,
+    created_at TIMESTAMP WITHOUT TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP WITHOUT TIME ZONE DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE repricing_job_ranges (
+    range_id BIGSERIAL PRIMARY KEY,
+    job_id UUID NOT NULL REFERENCES repricing_jobs(job_id) ON DELETE CASCADE,
+    from_code INTEGER NOT NULL,
+    to_code INTEGER NOT NULL,
+    next_code INTEGER NOT NULL,
+    products_updated BIGINT NOT NULL DEFAULT 0,
+    status VARCHAR(20) NOT NULL CHECK (status IN ('RUNNING', 'COMPLETED', 'FAILED')),
+    created_at TIMESTAMP WITHOUT TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP WITHOUT TIME ZONE DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_repricing_jobs_status ON repricing_jobs(status);
+CREATE INDEX idx_repricing_job_ranges_job ON repricing_job_ranges(job_id);
+
+COMMENT ON TABLE repricing_jobs IS 'Trabajos de reprecio masivo del catálogo';
+COMMENT ON TABLE repricing_job_ranges IS 'Rangos de product_code de cada trabajo de reprecio y su avance';
+
 -- ============================================
 -- TRIGGERS
 -- ============================================
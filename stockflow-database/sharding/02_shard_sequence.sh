@@ -0,0 +1,22 @@
+#!/bin/sh
+# ============================================
+# STOCKFLOW - Inicialización de un shard
+# ============================================
+# Se ejecuta después de schema.sql en docker-entrypoint-initdb.d.
+# Deja en el shard solo los productos de prueba que le corresponden y ajusta la
+# secuencia de product_code para que genere códigos con (product_code - 1) % SHARD_COUNT = SHARD_INDEX.
+# Variables requeridas: SHARD_INDEX (desde 0) y SHARD_COUNT.
+# ============================================
+set -e
+
+: "${SHARD_INDEX:?Defina SHARD_INDEX}"
+: "${SHARD_COUNT:?Defina SHARD_COUNT}"
+
+psql -v ON_ERROR_STOP=1 --username "$POSTGRES_USER" --dbname "$POSTGRES_DB" \
+    -v shard_index="$SHARD_INDEX" -v shard_count="$SHARD_COUNT" <<'EOSQL'
+DELETE FROM products WHERE (product_code - 1) % :shard_count <> :shard_index;
+
+SELECT COALESCE(MAX(product_code) + :shard_count, :shard_index + 1) AS next_code FROM products \gset
+
+ALTER SEQUENCE products_product_code_seq INCREMENT BY :shard_count RESTART WITH :next_code;
+EOSQL
@@ -0,0 +1,122 @@
+package com.linktic.stockflow_loadtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registro de latencias de un hilo. Cada hilo escribe en su propio registro sin sincronización y al
+ * terminar se combinan con {@link #merge(LatencyRecorder)}.
+ */
+public class LatencyRecorder {
+
+    private final Map<Operation, Samples> measured = new EnumMap<>(Operation.class);
+    private final Map<Operation, long[]> outcomes = new EnumMap<>(Operation.class);
+    private final List<Samples> timeline = new ArrayList<>();
+
+    /**
+     * @param operation  operación ejecutada
+     * @param latencyNanos latencia desde el instante previsto de envío
+     * @param error      si la respuesta no fue la esperada
+     * @param measuredPhase si la petición pertenece a la fase medida (y no al calentamiento)
+     * @param timelineSlot intervalo de la línea de tiempo al que pertenece la petición
+     */
+    public void record(Operation operation, long latencyNanos, boolean error, boolean measuredPhase, int timelineSlot) {
+        while (timeline.size() <= timelineSlot) {
+            timeline.add(new Samples());
+        }
+        timeline.get(timelineSlot).add(latencyNanos);
+
+        if (measuredPhase) {
+            measured.computeIfAbsent(operation, key -> new Samples()).add(latencyNanos);
+            long[] counts = outcomes.computeIfAbsent(operation, key -> new long[2]);
+            counts[error ? 1 : 0]++;
+        }
+    }
+
+    public void merge(LatencyRecorder other) {
+        other.measured.forEach((operation, samples) ->
+                measured.computeIfAbsent(operation, key -> new Samples()).addAll(samples));
+        other.outcomes.forEach((operation, counts) -> {
+            long[] target = outcomes.computeIfAbsent(operation, key -> new long[2]);
+            target[0] += counts[0];
+            target[1] += counts[1];
+        });
+        for (int slot = 0; slot < other.timeline.size(); slot++) {
+            while (timeline.size() <= slot) {
+                timeline.add(new Samples());
+            }
+            timeline.get(slot).addAll(other.timeline.get(slot));
+        }
+    }
+
+    public Map<Operation, Samples> measured() {
+        return measured;
+    }
+
+    public long errors(Operation operation) {
+        long[] counts = outcomes.get(operation);
+        return counts != null ? counts[1] : 0;
+    }
+
+    public List<Samples> timeline() {
+        return timeline;
+    }
+
+    /**
+     * Arreglo creciente de latencias en nanosegundos.
+     */
+    public static final class Samples {
+
+        private long[] values = new long[1024];
+        private int size;
+        private boolean sorted;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+            sorted = false;
+        }
+
+        void addAll(Samples other) {
+            if (size + other.size > values.length) {
+                values = Arrays.copyOf(values, Math.max(values.length * 2, size + other.size));
+            }
+            System.arraycopy(other.values, 0, values, size, other.size);
+            size += other.size;
+            sorted = false;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public double mean() {
+            long sum = 0;
+            for (int i = 0; i < size; i++) {
+                sum += values[i];
+            }
+            return size == 0 ? 0 : (double) sum / size;
+        }
+
+        /**
+         * @param quantile valor entre 0 y 1
+         * @return latencia en nanosegundos del cuantil pedido (método del rango más cercano)
+         */
+        public long quantile(double quantile) {
+            if (size == 0) {
+                return 0;
+            }
+            if (!sorted) {
+                Arrays.sort(values, 0, size);
+                sorted = true;
+            }
+            int rank = (int) Math.ceil(quantile * size) - 1;
+            return values[Math.max(0, Math.min(size - 1, rank))];
+        }
+    }
+}
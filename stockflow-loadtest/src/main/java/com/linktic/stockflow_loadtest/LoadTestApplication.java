@@ -0,0 +1,170 @@
+package com.linktic.stockflow_loadtest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Prueba de carga de lazo abierto contra {@code ms-stockflow-products} que reproduce el tráfico del
+ * servicio de stocks: lecturas por código con claves calientes (Zipf), listados paginados,
+ * actualizaciones y validaciones de compra, incluidas búsquedas de SKUs inexistentes.
+ * <p>
+ * Uso: {@code java -jar stockflow-loadtest.jar --base-url=http://localhost:8080 --rate=300 --duration=60
+ * --baseline=results/baseline.properties}
+ */
+public class LoadTestApplication {
+
+    private static final Pattern PRODUCT_CODE = Pattern.compile("\"productCode\"\\s*:\\s*(\\d+)");
+    private static final int KEY_PAGE_SIZE = 1000;
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromArgs(args);
+        ProductsClient client = new ProductsClient(config.baseUrl(), config.stocksUrl(), config.requestTimeout());
+
+        seedCatalog(client, config);
+
+        int[] keys = loadKeys(client, config);
+        if (keys.length == 0) {
+            System.err.println("El catálogo está vacío; use --seed-products=N para crear productos");
+            System.exit(1);
+        }
+        int missingBase = maxOf(keys) + 1_000_000;
+        ZipfDistribution zipf = new ZipfDistribution(keys.length, config.zipfExponent());
+        OperationMix mix = new OperationMix(config.mix());
+
+        System.out.printf("Ejecutando %d req/s con %d hilos durante %ds (+%ds de calentamiento) sobre %d productos%n",
+                config.rate(), config.concurrency(), config.duration().getSeconds(),
+                config.warmup().getSeconds(), keys.length);
+
+        LatencyRecorder recorder = run(client, zipf, keys, missingBase, mix, config);
+
+        LoadTestReport report = LoadTestReport.from(recorder, config);
+        report.print();
+        Path output = config.output();
+        report.write(output);
+        System.out.println("Resultados guardados en " + output);
+
+        Path baselinePath = config.baseline();
+        if (baselinePath != null) {
+            if (!Files.exists(baselinePath)) {
+                System.err.println("No existe la línea base " + baselinePath);
+                System.exit(1);
+            }
+            List<String> regressions = report.compareWith(LoadTestReport.load(baselinePath), config.tolerancePercent());
+            if (!regressions.isEmpty()) {
+                System.out.println("Regresiones frente a " + baselinePath + ":");
+                regressions.forEach(regression -> System.out.println("  - " + regression));
+                System.exit(2);
+            }
+            System.out.println("Sin regresiones frente a " + baselinePath);
+        }
+        System.exit(0);
+    }
+
+    private static LatencyRecorder run(ProductsClient client, ZipfDistribution zipf, int[] keys, int missingBase,
+                                       OperationMix mix, LoadTestConfig config) throws InterruptedException {
+        int concurrency = config.concurrency();
+        long startNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+
+        List<LoadWorker> workers = new ArrayList<>(concurrency);
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            LoadWorker worker = new LoadWorker(client, zipf, keys, missingBase, mix, config, i, startNanos);
+            workers.add(worker);
+            executor.execute(worker);
+        }
+        executor.shutdown();
+        long limit = config.warmup().plus(config.duration()).plus(config.requestTimeout()).toSeconds() + 10;
+        if (!executor.awaitTermination(limit, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+
+        LatencyRecorder recorder = new LatencyRecorder();
+        workers.forEach(worker -> recorder.merge(worker.recorder()));
+        return recorder;
+    }
+
+    /**
+     * Crea productos hasta alcanzar {@code --seed-products} si el catálogo tiene menos.
+     */
+    private static void seedCatalog(ProductsClient client, LoadTestConfig config) throws Exception {
+        long existing = client.countProducts();
+        int missing = (int) Math.max(0, config.seedProducts() - existing);
+        if (missing == 0) {
+            return;
+        }
+
+        System.out.printf("Creando %d productos de prueba%n", missing);
+        Random random = new Random(config.seed());
+        AtomicInteger failures = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(16, config.concurrency()));
+        for (int i = 0; i < missing; i++) {
+            String name = "Producto carga " + (existing + i + 1);
+            int price = 1000 + random.nextInt(2_000_000);
+            executor.execute(() -> {
+                try {
+                    if (client.createProduct(name, price) != 201) {
+                        failures.incrementAndGet();
+                    }
+                } catch (IOException e) {
+                    failures.incrementAndGet();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.HOURS);
+        if (failures.get() > 0) {
+            System.err.printf("No se pudieron crear %d productos%n", failures.get());
+        }
+    }
+
+    /**
+     * Obtiene los códigos reales del catálogo (hasta {@code --key-space}) y los baraja con la semilla,
+     * para que los rangos calientes de la distribución Zipf no coincidan con los códigos más bajos.
+     */
+    private static int[] loadKeys(ProductsClient client, LoadTestConfig config) throws Exception {
+        int keySpace = config.keySpace();
+        List<Integer> codes = new ArrayList<>();
+        for (int page = 0; codes.size() < keySpace; page++) {
+            String body = client.listPageBody(page, KEY_PAGE_SIZE);
+            Matcher matcher = PRODUCT_CODE.matcher(body);
+            int found = 0;
+            while (matcher.find() && codes.size() < keySpace) {
+                codes.add(Integer.parseInt(matcher.group(1)));
+                found++;
+            }
+            if (found < KEY_PAGE_SIZE) {
+                break;
+            }
+        }
+
+        int[] keys = codes.stream().mapToInt(Integer::intValue).toArray();
+        Random random = new Random(config.seed());
+        for (int i = keys.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = keys[i];
+            keys[i] = keys[j];
+            keys[j] = swap;
+        }
+        return keys;
+    }
+
+    private static int maxOf(int[] values) {
+        int max = 0;
+        for (int value : values) {
+            max = Math.max(max, value);
+        }
+        return max;
+    }
+}
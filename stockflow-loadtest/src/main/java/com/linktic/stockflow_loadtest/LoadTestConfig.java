@@ -0,0 +1,142 @@
+package com.linktic.stockflow_loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Parámetros de una ejecución. Se leen de argumentos {@code --clave=valor} y, si no están presentes,
+ * de variables de entorno {@code LOADTEST_CLAVE} (por ejemplo {@code LOADTEST_BASE_URL}).
+ */
+public class LoadTestConfig {
+
+    private static final String DEFAULT_MIX = "get:60,list:10,update:10,purchase:15,miss:5";
+
+    private final Map<String, String> values;
+
+    private LoadTestConfig(Map<String, String> values) {
+        this.values = values;
+    }
+
+    public static LoadTestConfig fromArgs(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Argumento inválido (se espera --clave=valor): " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return new LoadTestConfig(values);
+    }
+
+    /** URL base del microservicio de productos */
+    public String baseUrl() {
+        String url = get("base-url", "http://localhost:8080");
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    /** URL base del servicio de stocks, usada solo por la operación {@code stock} */
+    public String stocksUrl() {
+        String url = get("stocks-url", "http://localhost:3000");
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    /** Duración de la fase medida */
+    public Duration duration() {
+        return Duration.ofSeconds(getInt("duration", 60));
+    }
+
+    /** Duración del calentamiento; sus peticiones solo aparecen en la línea de tiempo */
+    public Duration warmup() {
+        return Duration.ofSeconds(getInt("warmup", 10));
+    }
+
+    /** Peticiones por segundo objetivo (carga de lazo abierto) */
+    public int rate() {
+        return getInt("rate", 200);
+    }
+
+    /** Hilos que emiten peticiones; limita la concurrencia máxima contra el servicio */
+    public int concurrency() {
+        return getInt("concurrency", 32);
+    }
+
+    /** Exponente de la distribución Zipf de claves calientes */
+    public double zipfExponent() {
+        return Double.parseDouble(get("zipf-exponent", "1.1"));
+    }
+
+    /** Semilla de los generadores aleatorios, para que dos ejecuciones emitan la misma secuencia */
+    public long seed() {
+        return Long.parseLong(get("seed", "42"));
+    }
+
+    /** Pesos relativos de cada operación, por ejemplo {@code get:60,list:10,update:10,purchase:15,miss:5} */
+    public Map<Operation, Integer> mix() {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String entry : get("mix", DEFAULT_MIX).split(",")) {
+            String[] parts = entry.trim().split(":");
+            mix.put(Operation.fromKey(parts[0]), Integer.parseInt(parts[1]));
+        }
+        return mix;
+    }
+
+    /** Tamaño de página de los listados */
+    public int pageSize() {
+        return getInt("page-size", 20);
+    }
+
+    /** Cantidad máxima de códigos reales que se usan como espacio de claves */
+    public int keySpace() {
+        return getInt("key-space", 100_000);
+    }
+
+    /** Productos a crear antes de la ejecución si el catálogo tiene menos */
+    public int seedProducts() {
+        return getInt("seed-products", 0);
+    }
+
+    /** Timeout por petición; por defecto el mismo HTTP_TIMEOUT del servicio de stocks */
+    public Duration requestTimeout() {
+        return Duration.ofMillis(getInt("timeout-ms", 5000));
+    }
+
+    /** Tamaño de cada intervalo de la línea de tiempo de latencias */
+    public Duration timelineInterval() {
+        return Duration.ofSeconds(getInt("timeline-interval", 10));
+    }
+
+    /** Archivo de resultados */
+    public Path output() {
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        return Path.of(get("output", "results/run-" + timestamp + ".properties"));
+    }
+
+    /** Resultados guardados con los que comparar; vacío para no comparar */
+    public Path baseline() {
+        String baseline = get("baseline", "");
+        return baseline.isBlank() ? null : Path.of(baseline);
+    }
+
+    /** Degradación porcentual tolerada frente a la línea base */
+    public double tolerancePercent() {
+        return Double.parseDouble(get("tolerance", "10"));
+    }
+
+    private int getInt(String key, int defaultValue) {
+        return Integer.parseInt(get(key, String.valueOf(defaultValue)));
+    }
+
+    private String get(String key, String defaultValue) {
+        String value = values.get(key);
+        if (value == null) {
+            value = System.getenv("LOADTEST_" + key.toUpperCase().replace('-', '_'));
+        }
+        return value != null ? value : defaultValue;
+    }
+}
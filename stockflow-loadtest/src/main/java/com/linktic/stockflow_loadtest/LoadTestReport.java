@@ -0,0 +1,181 @@
+package com.linktic.stockflow_loadtest;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Resumen de una ejecución: throughput, percentiles de latencia y tasa de error por operación, más una
+ * línea de tiempo de latencias. Se guarda como archivo {@code .properties} ordenado para poder
+ * compararlo con una ejecución anterior (la línea base) y verlo con un diff.
+ */
+public class LoadTestReport {
+
+    private static final double[] QUANTILES = {0.50, 0.90, 0.99, 0.999};
+    private static final String[] QUANTILE_KEYS = {"p50-ms", "p90-ms", "p99-ms", "p999-ms"};
+
+    private final Map<String, String> values = new TreeMap<>();
+
+    public static LoadTestReport from(LatencyRecorder recorder, LoadTestConfig config) {
+        LoadTestReport report = new LoadTestReport();
+        double seconds = config.duration().toMillis() / 1000.0;
+
+        report.put("run.base-url", config.baseUrl());
+        report.put("run.rate", config.rate());
+        report.put("run.concurrency", config.concurrency());
+        report.put("run.duration-seconds", config.duration().getSeconds());
+        report.put("run.warmup-seconds", config.warmup().getSeconds());
+        report.put("run.seed", config.seed());
+        report.put("run.zipf-exponent", config.zipfExponent());
+        report.put("run.mix", config.mix().toString());
+
+        LatencyRecorder.Samples total = new LatencyRecorder.Samples();
+        long totalErrors = 0;
+        for (Map.Entry<Operation, LatencyRecorder.Samples> entry : recorder.measured().entrySet()) {
+            LatencyRecorder.Samples samples = entry.getValue();
+            long errors = recorder.errors(entry.getKey());
+            report.putStats("op." + entry.getKey().key(), samples, errors, seconds);
+            total.addAll(samples);
+            totalErrors += errors;
+        }
+        report.putStats("total", total, totalErrors, seconds);
+
+        List<LatencyRecorder.Samples> timeline = recorder.timeline();
+        long intervalSeconds = config.timelineInterval().getSeconds();
+        for (int slot = 0; slot < timeline.size(); slot++) {
+            LatencyRecorder.Samples samples = timeline.get(slot);
+            String prefix = String.format("timeline.%04d", slot * intervalSeconds);
+            report.put(prefix + ".count", samples.size());
+            report.put(prefix + ".p50-ms", millis(samples.quantile(0.50)));
+            report.put(prefix + ".p99-ms", millis(samples.quantile(0.99)));
+        }
+        return report;
+    }
+
+    public static LoadTestReport load(Path path) throws IOException {
+        LoadTestReport report = new LoadTestReport();
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        properties.forEach((key, value) -> report.values.put((String) key, (String) value));
+        return report;
+    }
+
+    public void write(Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writer.write("# Resultados de stockflow-loadtest\n");
+            for (Map.Entry<String, String> entry : values.entrySet()) {
+                writer.write(entry.getKey() + "=" + entry.getValue().replace("\\", "\\\\") + "\n");
+            }
+        }
+    }
+
+    /**
+     * Imprime la tabla de resultados por operación.
+     */
+    public void print() {
+        System.out.printf("%-10s %10s %10s %9s %9s %9s %9s %9s%n",
+                "operación", "peticiones", "req/s", "error %", "p50 ms", "p90 ms", "p99 ms", "p999 ms");
+        for (String prefix : prefixes()) {
+            System.out.printf(Locale.ROOT, "%-10s %10s %10s %9.2f %9s %9s %9s %9s%n",
+                    prefix.replace("op.", ""),
+                    values.get(prefix + ".count"),
+                    values.get(prefix + ".throughput"),
+                    Double.parseDouble(values.get(prefix + ".error-rate")) * 100,
+                    values.get(prefix + ".p50-ms"),
+                    values.get(prefix + ".p90-ms"),
+                    values.get(prefix + ".p99-ms"),
+                    values.get(prefix + ".p999-ms"));
+        }
+    }
+
+    /**
+     * Compara con la línea base: una operación empeora si su throughput baja o su p99 sube más que la
+     * tolerancia, o si su tasa de error sube más de un punto porcentual.
+     * @return descripción de cada regresión encontrada; vacía si no hay regresiones
+     */
+    public List<String> compareWith(LoadTestReport baseline, double tolerancePercent) {
+        List<String> regressions = new ArrayList<>();
+        double tolerance = tolerancePercent / 100.0;
+
+        for (String prefix : baseline.prefixes()) {
+            if (!values.containsKey(prefix + ".count")) {
+                regressions.add(prefix + ": no se ejecutó en esta corrida");
+                continue;
+            }
+            double baseThroughput = baseline.number(prefix + ".throughput");
+            double throughput = number(prefix + ".throughput");
+            if (throughput < baseThroughput * (1 - tolerance)) {
+                regressions.add(String.format(Locale.ROOT, "%s: throughput %.1f req/s (línea base %.1f)",
+                        prefix, throughput, baseThroughput));
+            }
+
+            double baseP99 = baseline.number(prefix + ".p99-ms");
+            double p99 = number(prefix + ".p99-ms");
+            if (p99 > baseP99 * (1 + tolerance)) {
+                regressions.add(String.format(Locale.ROOT, "%s: p99 %.2f ms (línea base %.2f ms)",
+                        prefix, p99, baseP99));
+            }
+
+            double baseErrors = baseline.number(prefix + ".error-rate");
+            double errors = number(prefix + ".error-rate");
+            if (errors > baseErrors + 0.01) {
+                regressions.add(String.format(Locale.ROOT, "%s: tasa de error %.2f%% (línea base %.2f%%)",
+                        prefix, errors * 100, baseErrors * 100));
+            }
+        }
+        return regressions;
+    }
+
+    private List<String> prefixes() {
+        List<String> prefixes = new ArrayList<>();
+        for (String key : values.keySet()) {
+            if ((key.startsWith("op.") || key.startsWith("total.")) && key.endsWith(".count")) {
+                prefixes.add(key.substring(0, key.length() - ".count".length()));
+            }
+        }
+        return prefixes;
+    }
+
+    private void putStats(String prefix, LatencyRecorder.Samples samples, long errors, double seconds) {
+        put(prefix + ".count", samples.size());
+        put(prefix + ".errors", errors);
+        put(prefix + ".error-rate", format(samples.size() == 0 ? 0 : (double) errors / samples.size(), 4));
+        put(prefix + ".throughput", format((samples.size() - errors) / seconds, 1));
+        put(prefix + ".mean-ms", format(samples.mean() / 1_000_000.0, 3));
+        for (int i = 0; i < QUANTILES.length; i++) {
+            put(prefix + "." + QUANTILE_KEYS[i], millis(samples.quantile(QUANTILES[i])));
+        }
+        put(prefix + ".max-ms", millis(samples.quantile(1.0)));
+    }
+
+    private double number(String key) {
+        String value = values.get(key);
+        return value != null ? Double.parseDouble(value) : 0;
+    }
+
+    private void put(String key, Object value) {
+        values.put(key, String.valueOf(value));
+    }
+
+    private static String millis(long nanos) {
+        return format(nanos / 1_000_000.0, 3);
+    }
+
+    private static String format(double value, int decimals) {
+        return String.format(Locale.ROOT, "%." + decimals + "f", value);
+    }
+}
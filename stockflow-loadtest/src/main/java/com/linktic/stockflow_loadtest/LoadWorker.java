@@ -0,0 +1,111 @@
+package com.linktic.stockflow_loadtest;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hilo generador de carga de lazo abierto. Cada hilo emite su parte de la tasa objetivo en instantes
+ * fijos y mide la latencia desde el instante previsto, no desde el envío real: si el servicio se atrasa,
+ * la espera acumulada cuenta como latencia y no se oculta (omisión coordinada).
+ */
+public class LoadWorker implements Runnable {
+
+    private final ProductsClient client;
+    private final ZipfDistribution zipf;
+    private final int[] keys;
+    private final int missingBase;
+    private final OperationMix mix;
+    private final int pageSize;
+    private final int pages;
+    private final Random random;
+    private final long startNanos;
+    private final long warmupNanos;
+    private final long endNanos;
+    private final long intervalNanos;
+    private final long timelineNanos;
+    private final LatencyRecorder recorder = new LatencyRecorder();
+
+    public LoadWorker(ProductsClient client, ZipfDistribution zipf, int[] keys, int missingBase,
+                      OperationMix mix, LoadTestConfig config, int workerIndex, long startNanos) {
+        this.client = client;
+        this.zipf = zipf;
+        this.keys = keys;
+        this.missingBase = missingBase;
+        this.mix = mix;
+        this.pageSize = config.pageSize();
+        this.pages = Math.max(1, keys.length / pageSize);
+        this.random = new Random(config.seed() + workerIndex);
+        this.startNanos = startNanos;
+        this.warmupNanos = config.warmup().toNanos();
+        this.endNanos = startNanos + warmupNanos + config.duration().toNanos();
+        this.intervalNanos = TimeUnit.SECONDS.toNanos(config.concurrency()) / Math.max(1, config.rate());
+        this.timelineNanos = config.timelineInterval().toNanos();
+    }
+
+    @Override
+    public void run() {
+        // Cada hilo arranca desfasado para repartir los envíos dentro del intervalo
+        long intended = startNanos + (long) (random.nextDouble() * intervalNanos);
+        while (intended < endNanos && !Thread.currentThread().isInterrupted()) {
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            Operation operation = mix.sample(random);
+            boolean error = !execute(operation);
+            long latency = System.nanoTime() - intended;
+
+            long elapsed = intended - startNanos;
+            recorder.record(operation, latency, error, elapsed >= warmupNanos, (int) (elapsed / timelineNanos));
+            intended += intervalNanos;
+        }
+    }
+
+    public LatencyRecorder recorder() {
+        return recorder;
+    }
+
+    /**
+     * @return {@code true} si la respuesta fue la esperada para la operación
+     */
+    private boolean execute(Operation operation) {
+        try {
+            return switch (operation) {
+                case GET_PRODUCT -> client.getProduct(hotKey()) == 200;
+                case LIST_PAGE -> client.listPage(random.nextInt(pages), pageSize) == 200;
+                case UPDATE_PRODUCT -> client.updatePrice(hotKey(), 1000 + random.nextInt(2_000_000)) == 200;
+                case PURCHASE_LOOKUP -> {
+                    // El servicio de stocks valida cada SKU antes de descontar, incluidos SKUs desconocidos
+                    int code = random.nextInt(10) == 0 ? missingKey() : hotKey();
+                    int status = client.getProduct(code);
+                    yield status == 200 || status == 404;
+                }
+                case MISSING_PRODUCT -> client.getProduct(missingKey()) == 404;
+                case AVAILABILITY -> client.getAvailability(hotKey()) == 200;
+                case STOCK_LOOKUP -> client.getStock(hotKey()) == 200;
+                case HOT_UPDATE -> client.updatePrice(keys[0], 1000 + random.nextInt(2_000_000)) == 200;
+                case HOT_UPDATE_ASYNC -> {
+                    // 202 con la escritura agrupada habilitada; 200 si el servicio escribe directamente
+                    int status = client.updatePriceAsync(keys[0], 1000 + random.nextInt(2_000_000));
+                    yield status == 202 || status == 200;
+                }
+            };
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private int hotKey() {
+        return keys[zipf.sample(random) - 1];
+    }
+
+    private int missingKey() {
+        return missingBase + random.nextInt(1_000_000);
+    }
+}
@@ -0,0 +1,53 @@
+package com.linktic.stockflow_loadtest;
+
+/**
+ * Tipos de petición que componen la mezcla de tráfico.
+ */
+public enum Operation {
+
+    /** GET /api/products/{productCode} sobre claves calientes (distribución Zipf) */
+    GET_PRODUCT("get"),
+
+    /** GET /api/products?page=..&size=.. */
+    LIST_PAGE("list"),
+
+    /** PUT /api/products/{productCode} con un precio nuevo */
+    UPDATE_PRODUCT("update"),
+
+    /** Validación de producto como la hace el servicio de stocks antes de una compra */
+    PURCHASE_LOOKUP("purchase"),
+
+    /** GET /api/products/{productCode} de códigos que no existen */
+    MISSING_PRODUCT("miss"),
+
+    /** GET /api/products/{productCode}/availability: producto y stock en una sola consulta */
+    AVAILABILITY("availability"),
+
+    /** GET /stock/product/{productCode} del servicio de stocks: llamada HTTP al servicio de productos más consulta de stock */
+    STOCK_LOOKUP("stock"),
+
+    /** PUT /api/products/{productCode} siempre sobre el producto más caliente (una sola fila) */
+    HOT_UPDATE("hot-update"),
+
+    /** Como {@link #HOT_UPDATE}, con {@code Prefer: respond-async} (confirmación antes de escribir) */
+    HOT_UPDATE_ASYNC("hot-update-async");
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public static Operation fromKey(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equalsIgnoreCase(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Operación desconocida en la mezcla: " + key);
+    }
+}
@@ -0,0 +1,52 @@
+package com.linktic.stockflow_loadtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Mezcla de operaciones con pesos relativos: se acumulan los pesos y cada muestra es una búsqueda binaria
+ * sobre un número entre {@code 0} y la suma de los pesos, así que cualquier peso positivo se respeta exactamente
+ * (por ejemplo {@code get:999,miss:1}).
+ */
+public class OperationMix {
+
+    private final Operation[] operations;
+    private final long[] cumulativeWeights;
+    private final long totalWeight;
+
+    public OperationMix(Map<Operation, Integer> weights) {
+        List<Operation> selected = new ArrayList<>();
+        List<Long> cumulative = new ArrayList<>();
+        long sum = 0;
+        for (Map.Entry<Operation, Integer> entry : weights.entrySet()) {
+            if (entry.getValue() < 0) {
+                throw new IllegalArgumentException("Peso negativo para la operación " + entry.getKey().key());
+            }
+            // Las operaciones con peso cero no se incluyen: nunca se eligen
+            if (entry.getValue() > 0) {
+                sum += entry.getValue();
+                selected.add(entry.getKey());
+                cumulative.add(sum);
+            }
+        }
+        if (sum <= 0) {
+            throw new IllegalArgumentException("La mezcla de operaciones no tiene pesos positivos");
+        }
+        operations = selected.toArray(new Operation[0]);
+        cumulativeWeights = cumulative.stream().mapToLong(Long::longValue).toArray();
+        totalWeight = sum;
+    }
+
+    public Operation sample(Random random) {
+        long value = (long) (random.nextDouble() * totalWeight);
+        // Primera operación cuyo peso acumulado supera el valor
+        int index = Arrays.binarySearch(cumulativeWeights, value + 1);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return operations[index];
+    }
+}
@@ -0,0 +1,107 @@
+package com.linktic.stockflow_loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Cliente HTTP mínimo para la API de productos (y la consulta de stock del servicio de stocks).
+ */
+public class ProductsClient {
+
+    private static final Pattern TOTAL_ELEMENTS = Pattern.compile("\"totalElements\"\\s*:\\s*(\\d+)");
+
+    private final HttpClient httpClient;
+    private final String productsUrl;
+    private final String stocksUrl;
+    private final Duration timeout;
+
+    public ProductsClient(String baseUrl, String stocksUrl, Duration timeout) {
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+        this.productsUrl = baseUrl + "/api/products";
+        this.stocksUrl = stocksUrl + "/stock/product";
+        this.timeout = timeout;
+    }
+
+    public int getProduct(int productCode) throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(URI.create(productsUrl + "/" + productCode)).GET());
+    }
+
+    public int getAvailability(int productCode) throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(URI.create(productsUrl + "/" + productCode + "/availability")).GET());
+    }
+
+    public int getStock(int productCode) throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(URI.create(stocksUrl + "/" + productCode)).GET());
+    }
+
+    public int listPage(int page, int size) throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(URI.create(
+                productsUrl + "?page=" + page + "&size=" + size + "&sortBy=productCode&sortDirection=ASC")).GET());
+    }
+
+    public int updatePrice(int productCode, int price) throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(URI.create(productsUrl + "/" + productCode))
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString("{\"price\":" + price + "}")));
+    }
+
+    /**
+     * Actualización con {@code Prefer: respond-async}: con la escritura agrupada habilitada responde 202
+     * sin esperar la escritura
+     */
+    public int updatePriceAsync(int productCode, int price) throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(URI.create(productsUrl + "/" + productCode))
+                .header("Content-Type", "application/json")
+                .header("Prefer", "respond-async")
+                .PUT(HttpRequest.BodyPublishers.ofString("{\"price\":" + price + "}")));
+    }
+
+    public int createProduct(String name, int price) throws IOException, InterruptedException {
+        String body = "{\"name\":\"" + name + "\",\"description\":\"Producto de prueba de carga\",\"price\":" + price + "}";
+        return send(HttpRequest.newBuilder(URI.create(productsUrl))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)));
+    }
+
+    /**
+     * @return cuerpo JSON de una página del listado ordenado por código
+     */
+    public String listPageBody(int page, int size) throws IOException, InterruptedException {
+        return fetch(productsUrl + "?page=" + page + "&size=" + size + "&sortBy=productCode&sortDirection=ASC");
+    }
+
+    /**
+     * @return cantidad total de productos del catálogo
+     */
+    public long countProducts() throws IOException, InterruptedException {
+        String body = fetch(productsUrl + "?page=0&size=1");
+        Matcher matcher = TOTAL_ELEMENTS.matcher(body);
+        return matcher.find() ? Long.parseLong(matcher.group(1)) : 0;
+    }
+
+    private String fetch(String url) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(
+                HttpRequest.newBuilder(URI.create(url)).timeout(timeout).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IOException("GET " + url + " respondió " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    private int send(HttpRequest.Builder builder) throws IOException, InterruptedException {
+        // El cuerpo se descarta, pero se lee completo para medir la respuesta entera
+        HttpResponse<Void> response = httpClient.send(builder.timeout(timeout).build(),
+                HttpResponse.BodyHandlers.discarding());
+        return response.statusCode();
+    }
+}
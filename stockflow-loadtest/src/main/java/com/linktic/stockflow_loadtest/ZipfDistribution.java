@@ -0,0 +1,40 @@
+package com.linktic.stockflow_loadtest;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Distribución Zipf sobre los rangos {@code 1..n}: el rango {@code k} se elige con probabilidad
+ * proporcional a {@code 1 / k^exponent}. La función de distribución acumulada se precalcula una vez
+ * y cada muestra es una búsqueda binaria.
+ */
+public class ZipfDistribution {
+
+    private final double[] cdf;
+
+    public ZipfDistribution(int n, double exponent) {
+        if (n < 1) {
+            throw new IllegalArgumentException("El espacio de claves debe tener al menos un elemento");
+        }
+        cdf = new double[n];
+        double sum = 0;
+        for (int k = 1; k <= n; k++) {
+            sum += 1.0 / Math.pow(k, exponent);
+            cdf[k - 1] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cdf[i] /= sum;
+        }
+    }
+
+    /**
+     * @return rango entre {@code 1} y {@code n}; los rangos bajos son los más frecuentes
+     */
+    public int sample(Random random) {
+        int index = Arrays.binarySearch(cdf, random.nextDouble());
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return Math.min(index, cdf.length - 1) + 1;
+    }
+}